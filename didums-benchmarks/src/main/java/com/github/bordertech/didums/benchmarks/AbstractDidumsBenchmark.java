@@ -0,0 +1,102 @@
+package com.github.bordertech.didums.benchmarks;
+
+import com.github.bordertech.didums.Didums;
+import com.github.bordertech.didums.ServiceHandle;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.MissingService;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.MissingServiceDefaultImpl;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.PrototypeService;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.SingletonService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Didums} benchmarks common to all providers.
+ * <p>
+ * Subclasses select the provider and the number of threads.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class AbstractDidumsBenchmark {
+
+	private static final ServiceHandle<PrototypeService> PROTOTYPE_HANDLE = Didums.lookup(PrototypeService.class);
+
+	/**
+	 * Configure the factory fallback.
+	 */
+	@Setup
+	public void setup() {
+		BenchmarkServices.configureFactory();
+	}
+
+	/**
+	 * @return a prototype instance via the factory fallback
+	 */
+	@Benchmark
+	public PrototypeService getServiceFallbackPrototype() {
+		return Didums.getService(PrototypeService.class);
+	}
+
+	/**
+	 * @return a prototype instance via a service handle to the factory fallback
+	 */
+	@Benchmark
+	public PrototypeService getServiceHandleFallbackPrototype() {
+		return PROTOTYPE_HANDLE.get();
+	}
+
+	/**
+	 * @return a qualified prototype instance via the factory fallback
+	 */
+	@Benchmark
+	public PrototypeService getServiceFallbackQualified() {
+		return Didums.getService(PrototypeService.class, BenchmarkServices.NAMED_QUALIFIER);
+	}
+
+	/**
+	 * @return the singleton instance via the factory fallback
+	 */
+	@Benchmark
+	public SingletonService getServiceFallbackSingleton() {
+		return Didums.getService(SingletonService.class);
+	}
+
+	/**
+	 * @return the default implementation as no implementation is configured
+	 */
+	@Benchmark
+	public MissingService getServiceMissingDefault() {
+		return Didums.getService(MissingService.class, MissingServiceDefaultImpl.class);
+	}
+
+	/**
+	 * @return true as the factory has an implementation
+	 */
+	@Benchmark
+	public boolean hasServiceFallback() {
+		return Didums.hasService(PrototypeService.class);
+	}
+
+	/**
+	 * @return false as no implementation is available
+	 */
+	@Benchmark
+	public boolean hasServiceMissing() {
+		return Didums.hasService(MissingService.class);
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.github.bordertech.didums.benchmarks;
+
+import com.github.bordertech.didums.Didums;
+import com.github.bordertech.didums.DidumsProvider;
+import com.github.bordertech.didums.ServiceHandle;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.BoundService;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.BoundServiceImpl;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.InjectedClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * {@link Didums} benchmarks common to the providers backed by a DI framework, so the providers can be compared.
+ * <p>
+ * Subclasses select the provider and the number of threads.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public abstract class AbstractDidumsProviderBenchmark extends AbstractDidumsBenchmark {
+
+	private static final ServiceHandle<BoundService> BOUND_HANDLE = Didums.lookup(BoundService.class);
+
+	/**
+	 * @return the provider class expected to be configured for the benchmark fork
+	 */
+	protected abstract Class<? extends DidumsProvider> getProviderClass();
+
+	/**
+	 * Bind the provider services.
+	 */
+	@Setup
+	public void setupBindings() {
+		if (!getProviderClass().isInstance(Didums.getProvider())) {
+			throw new IllegalStateException("Expected the provider " + getProviderClass().getName() + " but was "
+					+ Didums.getProvider().getClass().getName());
+		}
+		if (Didums.getProvider().getService(BoundService.class) == null) {
+			Didums.bind(BoundService.class, BoundServiceImpl.class, false);
+		}
+	}
+
+	/**
+	 * @return an instance from the provider binding
+	 */
+	@Benchmark
+	public BoundService getServiceProvider() {
+		return Didums.getService(BoundService.class);
+	}
+
+	/**
+	 * @return an instance from the provider binding via a service handle
+	 */
+	@Benchmark
+	public BoundService getServiceHandleProvider() {
+		return BOUND_HANDLE.get();
+	}
+
+	/**
+	 * @return true as the provider has a binding
+	 */
+	@Benchmark
+	public boolean hasServiceProvider() {
+		return Didums.hasService(BoundService.class);
+	}
+
+	/**
+	 * @return a new instance with its dependencies injected
+	 */
+	@Benchmark
+	public InjectedClass createAndInject() {
+		return Didums.createAndInject(InjectedClass.class);
+	}
+
+}
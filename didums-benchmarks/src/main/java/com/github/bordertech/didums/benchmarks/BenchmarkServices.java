@@ -0,0 +1,155 @@
+package com.github.bordertech.didums.benchmarks;
+
+import com.github.bordertech.config.Config;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Services used by the benchmarks.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public final class BenchmarkServices {
+
+	/**
+	 * Factory parameter key prefix.
+	 */
+	public static final String PREFIX = "bordertech.factory.impl.";
+
+	/**
+	 * Qualifier used for qualified lookups.
+	 */
+	public static final String QUALIFIER = "bench";
+
+	/**
+	 * Qualifier annotation used for qualified lookups.
+	 */
+	public static final Named NAMED_QUALIFIER = getNamedQualifier();
+
+	@Named(QUALIFIER)
+	private static Object named;
+
+	/**
+	 * Private constructor.
+	 */
+	private BenchmarkServices() {
+	}
+
+	/**
+	 * Configure the factory properties used by the benchmarks.
+	 */
+	public static void configureFactory() {
+		Config.getInstance().setProperty(PREFIX + PrototypeService.class.getName(), PrototypeServiceImpl.class.getName());
+		Config.getInstance().setProperty(PREFIX + PrototypeService.class.getName() + "." + QUALIFIER, PrototypeServiceImpl.class.getName());
+		Config.getInstance().setProperty(PREFIX + PrototypeService.class.getName() + ".@javax.inject.Named(value=" + QUALIFIER + ")",
+				PrototypeServiceImpl.class.getName());
+		Config.getInstance().setProperty(PREFIX + SingletonService.class.getName(), SingletonServiceImpl.class.getName());
+		Config.getInstance().setProperty(PREFIX + MultiService.class.getName(),
+				MultiServiceImpl1.class.getName() + "," + MultiServiceImpl2.class.getName() + "," + MultiServiceImpl3.class.getName());
+		Config.notifyListeners();
+	}
+
+	/**
+	 * @return the named qualifier annotation
+	 */
+	private static Named getNamedQualifier() {
+		try {
+			return BenchmarkServices.class.getDeclaredField("named").getAnnotation(Named.class);
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Service with a prototype implementation.
+	 */
+	public interface PrototypeService {
+	}
+
+	/**
+	 * Prototype implementation.
+	 */
+	public static class PrototypeServiceImpl implements PrototypeService {
+	}
+
+	/**
+	 * Service with a singleton implementation.
+	 */
+	public interface SingletonService {
+	}
+
+	/**
+	 * Singleton implementation.
+	 */
+	@Singleton
+	public static class SingletonServiceImpl implements SingletonService {
+	}
+
+	/**
+	 * Service with no configured implementation.
+	 */
+	public interface MissingService {
+	}
+
+	/**
+	 * Default implementation of the missing service.
+	 */
+	public static class MissingServiceDefaultImpl implements MissingService {
+	}
+
+	/**
+	 * Service with multiple implementations.
+	 */
+	public interface MultiService {
+	}
+
+	/**
+	 * First multi implementation.
+	 */
+	public static class MultiServiceImpl1 implements MultiService {
+	}
+
+	/**
+	 * Second multi implementation.
+	 */
+	public static class MultiServiceImpl2 implements MultiService {
+	}
+
+	/**
+	 * Third multi implementation (singleton).
+	 */
+	@Singleton
+	public static class MultiServiceImpl3 implements MultiService {
+	}
+
+	/**
+	 * Service bound via the Didums provider.
+	 */
+	public interface BoundService {
+	}
+
+	/**
+	 * Implementation bound via the Didums provider.
+	 */
+	public static class BoundServiceImpl implements BoundService {
+	}
+
+	/**
+	 * Class created via createAndInject.
+	 */
+	public static class InjectedClass {
+
+		@Inject
+		private BoundService bound;
+
+		/**
+		 * @return the injected service
+		 */
+		public BoundService getBound() {
+			return bound;
+		}
+	}
+
+}
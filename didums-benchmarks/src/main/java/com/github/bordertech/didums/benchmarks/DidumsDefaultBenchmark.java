@@ -0,0 +1,15 @@
+package com.github.bordertech.didums.benchmarks;
+
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * {@link com.github.bordertech.didums.Didums} benchmarks with the default provider measured single threaded.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dbordertech.factory.impl.com.github.bordertech.didums.DidumsProvider=com.github.bordertech.didums.DefaultDidumsProvider")
+@Threads(1)
+public class DidumsDefaultBenchmark extends AbstractDidumsBenchmark {
+}
@@ -0,0 +1,23 @@
+package com.github.bordertech.didums.benchmarks;
+
+import com.github.bordertech.didums.DidumsProvider;
+import com.github.bordertech.didums.hk2.DidumsHk2Provider;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * {@link com.github.bordertech.didums.Didums} benchmarks with the {@link DidumsHk2Provider} measured single threaded.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dbordertech.factory.impl.com.github.bordertech.didums.DidumsProvider=com.github.bordertech.didums.hk2.DidumsHk2Provider")
+@Threads(1)
+public class DidumsHk2Benchmark extends AbstractDidumsProviderBenchmark {
+
+	@Override
+	protected Class<? extends DidumsProvider> getProviderClass() {
+		return DidumsHk2Provider.class;
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.github.bordertech.didums.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * {@link com.github.bordertech.didums.Didums} benchmarks with the HK2 provider measured with a thread per available
+ * processor.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@Threads(Threads.MAX)
+public class DidumsHk2ContendedBenchmark extends DidumsHk2Benchmark {
+}
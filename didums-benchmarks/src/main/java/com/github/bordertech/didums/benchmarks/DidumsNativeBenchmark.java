@@ -0,0 +1,23 @@
+package com.github.bordertech.didums.benchmarks;
+
+import com.github.bordertech.didums.DidumsProvider;
+import com.github.bordertech.didums.NativeDidumsProvider;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * {@link com.github.bordertech.didums.Didums} benchmarks with the {@link NativeDidumsProvider} measured single threaded.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dbordertech.factory.impl.com.github.bordertech.didums.DidumsProvider=com.github.bordertech.didums.NativeDidumsProvider")
+@Threads(1)
+public class DidumsNativeBenchmark extends AbstractDidumsProviderBenchmark {
+
+	@Override
+	protected Class<? extends DidumsProvider> getProviderClass() {
+		return NativeDidumsProvider.class;
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.github.bordertech.didums.benchmarks;
+
+import com.github.bordertech.didums.ContractKey;
+import com.github.bordertech.didums.Factory;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.MissingService;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.MissingServiceDefaultImpl;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.MultiService;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.PrototypeService;
+import com.github.bordertech.didums.benchmarks.BenchmarkServices.SingletonService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Factory} benchmarks measured single threaded.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class FactoryBenchmark {
+
+	private static final ContractKey<PrototypeService> PROTOTYPE_KEY = new ContractKey<>(PrototypeService.class);
+
+	/**
+	 * Configure the factory.
+	 */
+	@Setup
+	public void setup() {
+		BenchmarkServices.configureFactory();
+	}
+
+	/**
+	 * @return a new prototype instance
+	 */
+	@Benchmark
+	public PrototypeService newInstancePrototype() {
+		return Factory.newInstance(PrototypeService.class);
+	}
+
+	/**
+	 * @return a new prototype instance via a contract key
+	 */
+	@Benchmark
+	public PrototypeService newInstancePrototypeContractKey() {
+		return Factory.newInstance(PROTOTYPE_KEY);
+	}
+
+	/**
+	 * @return a new qualified prototype instance
+	 */
+	@Benchmark
+	public PrototypeService newInstancePrototypeQualified() {
+		return Factory.newInstance(PrototypeService.class, BenchmarkServices.QUALIFIER);
+	}
+
+	/**
+	 * @return the singleton instance
+	 */
+	@Benchmark
+	public SingletonService newInstanceSingleton() {
+		return Factory.newInstance(SingletonService.class);
+	}
+
+	/**
+	 * @return the default implementation as no implementation is configured
+	 */
+	@Benchmark
+	public MissingService newInstanceMissingDefault() {
+		return Factory.newInstance(MissingService.class, MissingServiceDefaultImpl.class);
+	}
+
+	/**
+	 * @return false as no implementation is configured
+	 */
+	@Benchmark
+	public boolean hasImplementationMissing() {
+		return Factory.hasImplementation(MissingService.class);
+	}
+
+	/**
+	 * @return the multiple implementations
+	 */
+	@Benchmark
+	public List<MultiService> newMultiInstances() {
+		return Factory.newMultiInstances(MultiService.class);
+	}
+
+}
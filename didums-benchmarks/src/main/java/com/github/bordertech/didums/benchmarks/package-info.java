@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks for Didums.
+ */
+package com.github.bordertech.didums.benchmarks;
@@ -0,0 +1,198 @@
+package com.github.bordertech.didums;
+
+import com.github.bordertech.config.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs the {@link DidumsBinder} implementations against the provider.
+ * <p>
+ * By default the binders are run one after another. Independent binders can be run concurrently by setting the
+ * following property:
+ * </p>
+ * <pre>
+ * bordertech.didums.binders.parallel=true
+ * bordertech.didums.binders.threads=4
+ * </pre>
+ * <p>
+ * In parallel mode each binder is passed a provider that records its bindings. Lookups are passed through to the
+ * backing provider. Once all the binders have completed, the recorded bindings are added to the backing provider in
+ * one {@link DidumsProvider#bindAll(java.util.Collection)} call in the order the binders are configured. Binders that
+ * use the backing framework directly (rather than the {@link DidumsProvider} API) must not be run in parallel. A binder
+ * that calls {@link Didums} directly is given the provider being configured, so its bindings are not recorded.
+ * </p>
+ * <p>
+ * The number of threads defaults to the number of available processors. The total time taken is logged at info level
+ * and the time taken by each binder at debug level.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+final class BinderRunner {
+
+	private static final Log LOG = LogFactory.getLog(BinderRunner.class);
+
+	/**
+	 * Flag to run the binders concurrently.
+	 */
+	static final String PARALLEL_PARAM = "bordertech.didums.binders.parallel";
+
+	/**
+	 * Maximum number of threads used to run the binders concurrently.
+	 */
+	static final String THREADS_PARAM = "bordertech.didums.binders.threads";
+
+	/**
+	 * Private constructor.
+	 */
+	private BinderRunner() {
+	}
+
+	/**
+	 * Run the binders against the provider as configured.
+	 *
+	 * @param provider the provider to add the bindings to
+	 * @param binders the binders to run
+	 */
+	static void configBindings(final DidumsProvider provider, final List<DidumsBinder> binders) {
+		boolean parallel = Config.getInstance().getBoolean(PARALLEL_PARAM, false);
+		if (parallel && binders.size() > 1) {
+			int threads = Config.getInstance().getInt(THREADS_PARAM, Runtime.getRuntime().availableProcessors());
+			configBindingsParallel(provider, binders, threads);
+		} else {
+			configBindingsSerial(provider, binders);
+		}
+	}
+
+	/**
+	 * Run the binders one after another.
+	 *
+	 * @param provider the provider to add the bindings to
+	 * @param binders the binders to run
+	 */
+	static void configBindingsSerial(final DidumsProvider provider, final List<DidumsBinder> binders) {
+		long start = System.nanoTime();
+		for (DidumsBinder binder : binders) {
+			long binderStart = System.nanoTime();
+			binder.configBindings(provider);
+			logTiming(binder, binderStart, -1);
+		}
+		logTotal(binders, start, -1);
+	}
+
+	/**
+	 * Run the binders concurrently and then add their bindings in binder order.
+	 *
+	 * @param provider the provider to add the bindings to
+	 * @param binders the binders to run
+	 * @param threads the maximum number of threads to use
+	 */
+	static void configBindingsParallel(final DidumsProvider provider, final List<DidumsBinder> binders, final int threads) {
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, binders.size())), BinderThread::new);
+		try {
+			// Run each binder with its own recorder
+			List<Future<BindingRecorder>> results = new ArrayList<>(binders.size());
+			for (DidumsBinder binder : binders) {
+				results.add(executor.submit(() -> {
+					long binderStart = System.nanoTime();
+					BindingRecorder recorder = new BindingRecorder(provider);
+					binder.configBindings(recorder);
+					logTiming(binder, binderStart, recorder.getBindings().size());
+					return recorder;
+				}));
+			}
+			// Merge the bindings in binder order
+			List<Binding<?>> bindings = new ArrayList<>();
+			for (int i = 0; i < binders.size(); i++) {
+				bindings.addAll(getResult(binders.get(i), results.get(i)).getBindings());
+			}
+			long bindStart = System.nanoTime();
+			provider.bindAll(bindings);
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Added " + bindings.size() + " bindings in " + elapsedMillis(bindStart) + "ms.");
+			}
+			logTotal(binders, start, bindings.size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return true if the current thread is running a binder in parallel mode
+	 */
+	static boolean isBinderThread() {
+		return Thread.currentThread() instanceof BinderThread;
+	}
+
+	/**
+	 * @param binder the binder that was run
+	 * @param result the binder result
+	 * @return the binder recorder
+	 */
+	private static BindingRecorder getResult(final DidumsBinder binder, final Future<BindingRecorder> result) {
+		try {
+			return result.get();
+		} catch (ExecutionException e) {
+			throw new FactoryException("DidumsBinder [" + binder.getClass().getName() + "] failed.", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FactoryException("Interrupted waiting for DidumsBinder [" + binder.getClass().getName() + "].", e);
+		}
+	}
+
+	/**
+	 * @param binder the binder that was run
+	 * @param start the start time in nanoseconds
+	 * @param bindings the number of bindings made or -1 if not known
+	 */
+	private static void logTiming(final DidumsBinder binder, final long start, final int bindings) {
+		if (LOG.isDebugEnabled()) {
+			String made = bindings < 0 ? "" : " (" + bindings + " bindings)";
+			LOG.debug("DidumsBinder [" + binder.getClass().getName() + "] took " + elapsedMillis(start) + "ms" + made + ".");
+		}
+	}
+
+	/**
+	 * @param binders the binders that were run
+	 * @param start the start time in nanoseconds
+	 * @param bindings the number of bindings made or -1 if not known
+	 */
+	private static void logTotal(final List<DidumsBinder> binders, final long start, final int bindings) {
+		if (LOG.isInfoEnabled() && !binders.isEmpty()) {
+			String made = bindings < 0 ? "" : " (" + bindings + " bindings)";
+			LOG.info("Configured " + binders.size() + " DidumsBinders in " + elapsedMillis(start) + "ms" + made + ".");
+		}
+	}
+
+	/**
+	 * @param start the start time in nanoseconds
+	 * @return the milliseconds elapsed since the start time
+	 */
+	private static long elapsedMillis(final long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	/**
+	 * Thread that runs the binders in parallel mode, so a lookup from a binder can be detected.
+	 */
+	private static final class BinderThread extends Thread {
+
+		/**
+		 * @param task the task to run
+		 */
+		private BinderThread(final Runnable task) {
+			super(task, "didums-binder");
+			setDaemon(true);
+		}
+	}
+
+}
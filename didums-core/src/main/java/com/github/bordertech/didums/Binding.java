@@ -0,0 +1,102 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+
+/**
+ * A binding of an implementation to a service contract and qualifiers.
+ * <p>
+ * Bindings can be collected and added in one call via {@link DidumsProvider#bindAll(java.util.Collection)}.
+ * </p>
+ *
+ * @param <T> the service contract type
+ * @author Jonathan Austin
+ * @see DidumsProvider
+ * @since 1.0.6
+ */
+public final class Binding<T> {
+
+	private final Class<T> contract;
+
+	private final Class<? extends T> contractImpl;
+
+	private final boolean singleton;
+
+	private final Annotation[] qualifiers;
+
+	private final CacheOptions cache;
+
+	/**
+	 * @param <U> the service implementation type
+	 * @param contract the service contract to bind the implementation to
+	 * @param contractImpl the service contract implementation class to bind
+	 * @param singleton true if bind as a Singleton
+	 * @param qualifiers the service qualifiers
+	 */
+	public <U extends T> Binding(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers) {
+		this.contract = Objects.requireNonNull(contract, "A contract must be provided.");
+		this.contractImpl = Objects.requireNonNull(contractImpl, "A contract implementation must be provided.");
+		this.singleton = singleton;
+		this.qualifiers = qualifiers == null ? new Annotation[0] : qualifiers.clone();
+		this.cache = null;
+	}
+
+	/**
+	 * Bind a cached implementation.
+	 *
+	 * @param <U> the service implementation type
+	 * @param contract the service contract to bind the implementation to
+	 * @param contractImpl the service contract implementation class to bind
+	 * @param cache the cache settings of the implementation
+	 * @param qualifiers the service qualifiers
+	 */
+	public <U extends T> Binding(final Class<T> contract, final Class<U> contractImpl, final CacheOptions cache, final Annotation... qualifiers) {
+		this.contract = Objects.requireNonNull(contract, "A contract must be provided.");
+		this.contractImpl = Objects.requireNonNull(contractImpl, "A contract implementation must be provided.");
+		this.singleton = false;
+		this.qualifiers = qualifiers == null ? new Annotation[0] : qualifiers.clone();
+		this.cache = Objects.requireNonNull(cache, "Cache options must be provided.");
+	}
+
+	/**
+	 * @return the service contract to bind the implementation to
+	 */
+	public Class<T> getContract() {
+		return contract;
+	}
+
+	/**
+	 * @return the service contract implementation class to bind
+	 */
+	public Class<? extends T> getContractImpl() {
+		return contractImpl;
+	}
+
+	/**
+	 * @return true if bind as a Singleton
+	 */
+	public boolean isSingleton() {
+		return singleton;
+	}
+
+	/**
+	 * @return the cache settings or null if the implementation is not cached
+	 */
+	public CacheOptions getCache() {
+		return cache;
+	}
+
+	/**
+	 * @return a copy of the service qualifiers
+	 */
+	public Annotation[] getQualifiers() {
+		return qualifiers.clone();
+	}
+
+	@Override
+	public String toString() {
+		return contract.getName() + " -> " + contractImpl.getName() + (singleton ? " (singleton)" : "")
+				+ (cache == null ? "" : " (cached " + cache + ")");
+	}
+
+}
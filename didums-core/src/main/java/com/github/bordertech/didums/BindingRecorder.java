@@ -0,0 +1,64 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provider passed to a {@link DidumsBinder} that records its bindings instead of adding them.
+ * <p>
+ * Lookups and injection are passed through to the backing provider.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+final class BindingRecorder implements DidumsProvider {
+
+	private final DidumsProvider backing;
+
+	private final List<Binding<?>> bindings = new ArrayList<>();
+
+	/**
+	 * @param backing the backing provider to pass lookups to
+	 */
+	BindingRecorder(final DidumsProvider backing) {
+		this.backing = backing;
+	}
+
+	/**
+	 * @return the recorded bindings in the order they were made
+	 */
+	@Override
+	public List<Binding<?>> getBindings() {
+		return Collections.unmodifiableList(bindings);
+	}
+
+	@Override
+	public <T> T getService(final Class<T> contract, final Annotation... qualifiers) {
+		return backing.getService(contract, qualifiers);
+	}
+
+	@Override
+	public <T> T createAndInject(final Class<T> createMe) {
+		return backing.createAndInject(createMe);
+	}
+
+	@Override
+	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers) {
+		bindings.add(new Binding<>(contract, contractImpl, singleton, qualifiers));
+	}
+
+	@Override
+	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final CacheOptions cache, final Annotation... qualifiers) {
+		bindings.add(new Binding<>(contract, contractImpl, cache, qualifiers));
+	}
+
+	@Override
+	public void bindAll(final Collection<? extends Binding<?>> newBindings) {
+		bindings.addAll(newBindings);
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.github.bordertech.didums;
+
+/**
+ * The settings of a cached service, being how long an instance is kept and whether it can be released when memory is
+ * low.
+ * <p>
+ * Used to bind a cached service via {@link DidumsProvider#bind(Class, Class, CacheOptions, java.lang.annotation.Annotation...)}
+ * and read from the {@link Cached} annotation of a {@link Factory} implementation.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @see InstanceCache
+ * @since 1.0.6
+ */
+public final class CacheOptions {
+
+	private final long ttlMillis;
+
+	private final boolean soft;
+
+	/**
+	 * @param ttlMillis the time in milliseconds an instance is kept after it is created, or zero to keep it until evicted
+	 * @param soft true if the instance is held via a soft reference so it can be released when memory is low
+	 */
+	public CacheOptions(final long ttlMillis, final boolean soft) {
+		if (ttlMillis < 0) {
+			throw new IllegalArgumentException("Time to live cannot be negative.");
+		}
+		this.ttlMillis = ttlMillis;
+		this.soft = soft;
+	}
+
+	/**
+	 * @param cached the cached annotation
+	 */
+	private CacheOptions(final Cached cached) {
+		this(cached.ttlMillis(), cached.soft());
+	}
+
+	/**
+	 * @param clazz the implementation class
+	 * @return the options of the {@link Cached} annotation or null if the class is not cached
+	 */
+	static CacheOptions forClass(final Class<?> clazz) {
+		Cached cached = clazz.getAnnotation(Cached.class);
+		return cached == null ? null : new CacheOptions(cached);
+	}
+
+	/**
+	 * @return the time in milliseconds an instance is kept after it is created, or zero to keep it until evicted
+	 */
+	public long getTtlMillis() {
+		return ttlMillis;
+	}
+
+	/**
+	 * @return true if the instance is held via a soft reference so it can be released when memory is low
+	 */
+	public boolean isSoft() {
+		return soft;
+	}
+
+	@Override
+	public String toString() {
+		return "ttl " + ttlMillis + "ms" + (soft ? ", soft" : "");
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an implementation as cached, for heavyweight services that are only needed in bursts.
+ * <p>
+ * The {@link Factory} keeps the instance of a cached class for the time to live and then releases it, so the next
+ * request creates a new instance. A soft cached instance can also be released by the garbage collector when memory is
+ * low.
+ * </p>
+ * <p>
+ * Services bound via a {@link DidumsProvider} are cached by binding them with {@link CacheOptions}. The number of
+ * instances cached by the Factory and by each provider is bounded by {@link InstanceCache#MAX_SIZE_PARAM}. The
+ * {@link javax.inject.Singleton} annotation takes precedence over this annotation, and this annotation takes precedence
+ * over {@link Pooled}.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cached {
+
+	/**
+	 * @return the time in milliseconds an instance is kept after it is created, or zero to keep it until evicted
+	 */
+	long ttlMillis() default 60_000L;
+
+	/**
+	 * @return true if the instance is held via a soft reference so it can be released when memory is low
+	 */
+	boolean soft() default false;
+
+}
@@ -0,0 +1,118 @@
+package com.github.bordertech.didums;
+
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * A contract and its qualifiers used to look up an implementation via the {@link Factory}.
+ * <p>
+ * The parameter key suffix and the full parameter key are built once when the key is created, so a key held in a
+ * constant can be passed to the {@link Factory} on every call without building the key again.
+ * </p>
+ *
+ * <pre>
+ * private static final ContractKey&lt;Foo&gt; FOO_KEY = new ContractKey&lt;&gt;(Foo.class, "use", "another");
+ * ...
+ * Foo foo = Factory.newInstance(FOO_KEY);
+ * </pre>
+ *
+ * @param <T> the contract type
+ * @author Jonathan Austin
+ * @see Factory
+ * @since 1.0.6
+ */
+public final class ContractKey<T> {
+
+	private static final String QUALIFIER_SEPERATOR = ".";
+
+	private final Class<T> contract;
+
+	private final String[] qualifiers;
+
+	private final String keySuffix;
+
+	private final String paramKey;
+
+	/**
+	 * @param contract the contract type
+	 * @param qualifiers the contract qualifiers
+	 */
+	public ContractKey(final Class<T> contract, final String... qualifiers) {
+		this.contract = Objects.requireNonNull(contract, "A contract must be provided.");
+		this.qualifiers = qualifiers == null ? new String[0] : qualifiers.clone();
+		this.keySuffix = buildKeySuffix(contract, this.qualifiers);
+		this.paramKey = Factory.PREFIX + keySuffix;
+	}
+
+	/**
+	 * @return the contract type
+	 */
+	public Class<T> getContract() {
+		return contract;
+	}
+
+	/**
+	 * @return a copy of the contract qualifiers
+	 */
+	public String[] getQualifiers() {
+		return qualifiers.clone();
+	}
+
+	/**
+	 * @return the parameter key suffix for the contract and qualifiers
+	 */
+	public String getKeySuffix() {
+		return keySuffix;
+	}
+
+	/**
+	 * @return the full parameter key, being the factory prefix and the key suffix
+	 */
+	String getParamKey() {
+		return paramKey;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ContractKey)) {
+			return false;
+		}
+		ContractKey<?> other = (ContractKey<?>) obj;
+		return contract.equals(other.contract) && Arrays.equals(qualifiers, other.qualifiers);
+	}
+
+	@Override
+	public int hashCode() {
+		return keySuffix.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return keySuffix;
+	}
+
+	/**
+	 * Build the contract suffix with qualifiers.
+	 *
+	 * @param contract the contract type
+	 * @param qualifiers the contract qualifiers
+	 * @return the contract parameter suffix
+	 */
+	static String buildKeySuffix(final Class<?> contract, final String... qualifiers) {
+		if (qualifiers == null || qualifiers.length == 0) {
+			return contract.getName();
+		}
+		StringBuilder suffix = new StringBuilder(contract.getName());
+		for (String qualifier : qualifiers) {
+			if (!StringUtils.isEmpty(qualifier)) {
+				suffix.append(QUALIFIER_SEPERATOR).append(qualifier);
+			}
+		}
+		return suffix.toString();
+	}
+
+}
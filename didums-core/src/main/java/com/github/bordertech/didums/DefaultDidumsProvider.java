@@ -1,6 +1,7 @@
 package com.github.bordertech.didums;
 
 import java.lang.annotation.Annotation;
+import java.util.Collection;
 
 /**
  * Default Provider.
@@ -29,4 +30,13 @@ public class DefaultDidumsProvider implements DidumsProvider {
 		throw new UnsupportedOperationException("Not supported by default provider.");
 	}
 
+	@Override
+	public void bindAll(final Collection<? extends Binding<?>> bindings) {
+		// Nothing to bind
+		if (bindings.isEmpty()) {
+			return;
+		}
+		throw new UnsupportedOperationException("Not supported by default provider.");
+	}
+
 }
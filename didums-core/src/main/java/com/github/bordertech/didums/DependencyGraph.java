@@ -0,0 +1,279 @@
+package com.github.bordertech.didums;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * The dependencies between bound services, built from the bindings and the {@link javax.inject.Inject} constructor and
+ * fields of each implementation.
+ * <p>
+ * The graph reports dependency cycles and dependencies that have no binding before any service is created. A
+ * dependency on a {@link javax.inject.Provider} is resolved lazily so it does not form part of a cycle, but it is still
+ * reported if it has no binding. Method injection and dependencies bound directly via the backing DI framework are not
+ * known to the graph.
+ * </p>
+ * <p>
+ * An implementation that the backing DI framework can create but that has no {@link javax.inject.Inject} or
+ * no-argument constructor is reported as unknown and treated as having no dependencies.
+ * </p>
+ * <p>
+ * The services are sorted into levels, where a service only depends on services in earlier levels. The singletons of
+ * a level do not depend on each other so {@link #createSingletons(DidumsProvider, Executor)} creates them in parallel,
+ * one level after the other.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @see DidumsProvider#getBindings()
+ * @since 1.0.6
+ */
+public final class DependencyGraph {
+
+	/**
+	 * The bound services by contract and qualifiers. A later binding replaces an earlier one.
+	 */
+	private final Map<ServiceKey, Node> nodes = new LinkedHashMap<>();
+
+	private final List<String> missing = new ArrayList<>();
+
+	private final List<String> unknown = new ArrayList<>();
+
+	private final List<String> cycles = new ArrayList<>();
+
+	private final List<List<Binding<?>>> levels = new ArrayList<>();
+
+	/**
+	 * @param bindings the bindings to analyze
+	 */
+	public DependencyGraph(final Collection<? extends Binding<?>> bindings) {
+		for (Binding<?> binding : bindings) {
+			nodes.put(new ServiceKey(binding.getContract(), binding.getQualifiers()), new Node(binding));
+		}
+		for (Node node : nodes.values()) {
+			Class<?> impl = node.getBinding().getContractImpl();
+			List<InjectionPoint> points;
+			try {
+				points = InjectionPoint.forClass(impl);
+			} catch (FactoryException e) {
+				unknown.add("[" + impl.getName() + "] dependencies are not known to the graph. " + e.getMessage());
+				continue;
+			}
+			for (InjectionPoint point : points) {
+				Node dependency = nodes.get(new ServiceKey(point.getContract(), point.getQualifiers()));
+				if (dependency == null) {
+					missing.add("[" + impl.getName() + "] depends on " + point + " which is not bound.");
+				} else if (!point.isProvider()) {
+					node.getDependencies().add(dependency);
+				}
+			}
+		}
+		findCycles();
+		sortLevels();
+	}
+
+	/**
+	 * @return the dependency cycles found, with each cycle described as a path of implementation classes
+	 */
+	public List<String> getCycles() {
+		return Collections.unmodifiableList(cycles);
+	}
+
+	/**
+	 * @return a description of each dependency that has no binding
+	 */
+	public List<String> getMissing() {
+		return Collections.unmodifiableList(missing);
+	}
+
+	/**
+	 * @return a description of each implementation whose dependencies could not be analyzed
+	 */
+	public List<String> getUnknown() {
+		return Collections.unmodifiableList(unknown);
+	}
+
+	/**
+	 * Retrieve the bindings sorted into levels, where a binding only depends on bindings in earlier levels. Bindings
+	 * that are part of, or depend on, a dependency cycle are not included.
+	 *
+	 * @return the bindings in dependency order
+	 */
+	public List<List<Binding<?>>> getLevels() {
+		return Collections.unmodifiableList(levels);
+	}
+
+	/**
+	 * Check the graph has no dependency cycles and no missing bindings.
+	 *
+	 * @throws FactoryException if a cycle is found or a binding is missing
+	 */
+	public void validate() {
+		if (!cycles.isEmpty() || !missing.isEmpty()) {
+			List<String> problems = new ArrayList<>();
+			for (String cycle : cycles) {
+				problems.add("Dependency cycle found [" + cycle + "].");
+			}
+			problems.addAll(missing);
+			throw new FactoryException("Invalid bindings. " + String.join(" ", problems));
+		}
+	}
+
+	/**
+	 * Create the singletons via the provider in dependency order.
+	 * <p>
+	 * Each singleton of a level is retrieved as a separate task on the executor, and the next level is started once all
+	 * the singletons of the level have been created. As the dependencies of a singleton have already been created, the
+	 * tasks of a level do not wait on each other.
+	 * </p>
+	 *
+	 * @param provider the provider holding the bindings
+	 * @param executor the executor to create the singletons
+	 * @return a future that completes when the singletons have been created, or completes exceptionally if a dependency
+	 * cycle was found or a singleton could not be created
+	 */
+	public CompletableFuture<Void> createSingletons(final DidumsProvider provider, final Executor executor) {
+		if (!cycles.isEmpty()) {
+			CompletableFuture<Void> failed = new CompletableFuture<>();
+			failed.completeExceptionally(new FactoryException("Dependency cycle found [" + cycles.get(0) + "]."));
+			return failed;
+		}
+		CompletableFuture<Void> created = CompletableFuture.completedFuture(null);
+		for (List<Binding<?>> level : levels) {
+			created = created.thenCompose(done -> createSingletons(provider, executor, level));
+		}
+		return created;
+	}
+
+	/**
+	 * @param provider the provider holding the bindings
+	 * @param executor the executor to create the singletons
+	 * @param level the bindings of one level
+	 * @return a future that completes when the singletons of the level have been created
+	 */
+	private static CompletableFuture<Void> createSingletons(final DidumsProvider provider, final Executor executor,
+			final List<Binding<?>> level) {
+		List<CompletableFuture<Void>> tasks = new ArrayList<>(level.size());
+		for (Binding<?> binding : level) {
+			if (binding.isSingleton()) {
+				tasks.add(CompletableFuture.runAsync(() -> provider.getService(binding.getContract(), binding.getQualifiers()), executor));
+			}
+		}
+		return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+	}
+
+	/**
+	 * Find the dependency cycles via a depth first search.
+	 */
+	private void findCycles() {
+		Set<Node> checked = new HashSet<>();
+		for (Node node : nodes.values()) {
+			findCycles(node, new ArrayDeque<>(), checked);
+		}
+	}
+
+	/**
+	 * @param node the node to check
+	 * @param path the nodes on the current dependency path
+	 * @param checked the nodes already checked
+	 */
+	private void findCycles(final Node node, final Deque<Node> path, final Set<Node> checked) {
+		if (path.contains(node)) {
+			List<Node> cycle = new ArrayList<>(path);
+			cycles.add(cycle.subList(cycle.indexOf(node), cycle.size()).stream()
+					.map(Node::getName)
+					.collect(Collectors.joining(" -> ", "", " -> " + node.getName())));
+			return;
+		}
+		if (!checked.add(node)) {
+			return;
+		}
+		path.addLast(node);
+		for (Node dependency : node.getDependencies()) {
+			findCycles(dependency, path, checked);
+		}
+		path.removeLast();
+	}
+
+	/**
+	 * Sort the nodes into levels via Kahn's algorithm.
+	 */
+	private void sortLevels() {
+		Map<Node, Integer> remaining = new HashMap<>();
+		Map<Node, List<Node>> dependents = new HashMap<>();
+		List<Node> ready = new ArrayList<>();
+		for (Node node : nodes.values()) {
+			remaining.put(node, node.getDependencies().size());
+			for (Node dependency : node.getDependencies()) {
+				dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(node);
+			}
+			if (node.getDependencies().isEmpty()) {
+				ready.add(node);
+			}
+		}
+		while (!ready.isEmpty()) {
+			List<Binding<?>> level = new ArrayList<>(ready.size());
+			List<Node> next = new ArrayList<>();
+			for (Node node : ready) {
+				level.add(node.getBinding());
+				for (Node dependent : dependents.getOrDefault(node, Collections.emptyList())) {
+					if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+						next.add(dependent);
+					}
+				}
+			}
+			levels.add(Collections.unmodifiableList(level));
+			ready = next;
+		}
+	}
+
+	/**
+	 * A bound service and the bound services it depends on.
+	 */
+	private static final class Node {
+
+		private final Binding<?> binding;
+
+		private final Set<Node> dependencies = new LinkedHashSet<>();
+
+		/**
+		 * @param binding the binding
+		 */
+		private Node(final Binding<?> binding) {
+			this.binding = binding;
+		}
+
+		/**
+		 * @return the binding
+		 */
+		private Binding<?> getBinding() {
+			return binding;
+		}
+
+		/**
+		 * @return the bound services this service depends on
+		 */
+		private Set<Node> getDependencies() {
+			return dependencies;
+		}
+
+		/**
+		 * @return the implementation class name
+		 */
+		private String getName() {
+			return binding.getContractImpl().getName();
+		}
+	}
+
+}
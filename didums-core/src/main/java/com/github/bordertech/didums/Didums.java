@@ -3,7 +3,14 @@ package com.github.bordertech.didums;
 import com.github.bordertech.config.Config;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 /**
  * Didums is a facade for Dependency Injection (JSR330) frameworks.
@@ -15,7 +22,17 @@ import java.util.List;
  * Implementations of {@link DidumsProvider} are the bridge between the Didums API and the Provider's DI functionality.
  * </p>
  * <p>
- * The initial bindings for an application can be setup by implementing {@link DidumsBinder}.
+ * The initial bindings for an application can be setup by implementing {@link DidumsBinder}. Independent binders can
+ * be run concurrently by setting <code>bordertech.didums.binders.parallel=true</code>.
+ * </p>
+ * <p>
+ * The provider is created and the binders run on first use of Didums, or when {@link #init()} is called.
+ * </p>
+ * <p>
+ * Didums remembers the services the provider has no binding for and uses the {@link Factory} directly for them. This
+ * is reset when bindings are added via {@link #bind(Class, Class, boolean, Annotation...)},
+ * {@link #bindAll(Collection)} or a {@link DidumsBinder}, so bindings added at runtime should be made via Didums
+ * rather than directly on the provider.
  * </p>
  *
  * @author Jonathan Austin
@@ -28,18 +45,34 @@ import java.util.List;
  */
 public final class Didums {
 
-	private static final DidumsProvider PROVIDER;
+	private static final Log LOG = LogFactory.getLog(Didums.class);
 
-	static {
-		// Load the Provider via the tradional Factory
-		// TODO Also use SPI
-		PROVIDER = Factory.newInstance(DidumsProvider.class, DefaultDidumsProvider.class);
-		// Load the Bunders (if any)
-		List<DidumsBinder> binders = Factory.newMultiInstances(DidumsBinder.class);
-		for (DidumsBinder binder : binders) {
-			binder.configBindings(PROVIDER);
-		}
-	}
+	/**
+	 * Metrics cache name of the provider misses.
+	 */
+	private static final String PROVIDER_MISSES_CACHE = "didums.providerMisses";
+
+	/**
+	 * Incremented each time a binding is added. The services the provider has no binding for and the pools of
+	 * {@link Pooled} services created by the provider are held on the {@link ServiceKey} against the version, so adding
+	 * a binding clears them and a lookup racing with a bind does not cache a stale miss.
+	 */
+	private static final AtomicInteger BINDING_VERSION = new AtomicInteger();
+
+	/**
+	 * Creates the provider and runs the binders on first use.
+	 */
+	private static final DidumsBootstrap BOOTSTRAP = new DidumsBootstrap(
+			// Load the Provider via the Factory, which also checks the FactoryRegistry services loaded via SPI
+			() -> Factory.newInstance(DidumsProvider.class, DefaultDidumsProvider.class),
+			provider -> {
+				try {
+					// Load the Binders (if any)
+					BinderRunner.configBindings(provider, Factory.newMultiInstances(DidumsBinder.class));
+				} finally {
+					clearProviderMisses();
+				}
+			});
 
 	/**
 	 * Private constructor.
@@ -47,11 +80,119 @@ public final class Didums {
 	private Didums() {
 	}
 
+	/**
+	 * Create the provider and run the binders if not already done.
+	 * <p>
+	 * Didums initializes itself on first use, so calling this method is optional. It allows an application to choose
+	 * when the startup cost is paid. If a binder fails, the exception is thrown and the next call tries again.
+	 * </p>
+	 */
+	public static void init() {
+		BOOTSTRAP.getProvider();
+	}
+
+	/**
+	 * Initialize Didums, create the singletons bound via the provider and preload all the contracts configured for the
+	 * {@link Factory}.
+	 * <p>
+	 * The singletons are created in dependency order, with the singletons that do not depend on each other created in
+	 * parallel. The future completes exceptionally if a dependency cycle is found. Dependencies that have no binding are
+	 * logged as a warning.
+	 * </p>
+	 *
+	 * @return a future that completes when Didums is ready
+	 * @see #warmUp(Executor)
+	 */
+	public static CompletableFuture<Void> warmUp() {
+		return warmUp(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Initialize Didums, create the singletons bound via the provider and preload all the contracts configured for the
+	 * {@link Factory}.
+	 * <p>
+	 * The singletons are created in dependency order on the executor, with the singletons that do not depend on each
+	 * other created in parallel. The future completes exceptionally if a dependency cycle is found. Dependencies that
+	 * have no binding are logged as a warning.
+	 * </p>
+	 *
+	 * @param executor the executor to run the warm up tasks
+	 * @return a future that completes when Didums is ready
+	 * @see #getDependencyGraph()
+	 * @see Factory#preload(Executor)
+	 */
+	public static CompletableFuture<Void> warmUp(final Executor executor) {
+		return CompletableFuture.runAsync(Didums::init, executor).thenCompose(done -> {
+			DependencyGraph graph = getDependencyGraph();
+			for (String missing : graph.getMissing()) {
+				LOG.warn(missing);
+			}
+			for (String unknown : graph.getUnknown()) {
+				LOG.debug(unknown);
+			}
+			return graph.createSingletons(getProvider(), executor);
+		}).thenCompose(done -> Factory.preload(executor));
+	}
+
+	/**
+	 * Build the dependency graph of the bindings added via the provider, so dependency cycles and missing bindings can
+	 * be reported before the services are used.
+	 *
+	 * @return the dependency graph of the provider bindings
+	 * @see DidumsProvider#getBindings()
+	 */
+	public static DependencyGraph getDependencyGraph() {
+		return new DependencyGraph(getProvider().getBindings());
+	}
+
+	/**
+	 * Initialize Didums and retrieve the services ahead of use.
+	 *
+	 * @param services the services to retrieve
+	 * @return a future that completes when the services have been retrieved
+	 * @see #warmUp(Executor, Class...)
+	 */
+	public static CompletableFuture<Void> warmUp(final Class<?>... services) {
+		return warmUp(ForkJoinPool.commonPool(), services);
+	}
+
+	/**
+	 * Initialize Didums and retrieve the services ahead of use.
+	 * <p>
+	 * Each service is retrieved as a separate task on the executor once Didums is initialized, so singletons are created
+	 * in parallel. The future completes exceptionally if initialization fails or a service is not available, so it can
+	 * be used by a readiness check.
+	 * </p>
+	 *
+	 * @param executor the executor to run the warm up tasks
+	 * @param services the services to retrieve
+	 * @return a future that completes when the services have been retrieved
+	 */
+	public static CompletableFuture<Void> warmUp(final Executor executor, final Class<?>... services) {
+		return CompletableFuture.runAsync(Didums::init, executor).thenCompose(done -> {
+			List<CompletableFuture<Void>> tasks = new ArrayList<>(services.length);
+			for (Class<?> service : services) {
+				tasks.add(CompletableFuture.runAsync(() -> getService(service), executor));
+			}
+			return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+		});
+	}
+
+	/**
+	 * Check if the provider has been created and the binders run. Does not wait for or trigger initialization so can be
+	 * used by health checks.
+	 *
+	 * @return true if Didums has been initialized
+	 */
+	public static boolean isInitialized() {
+		return BOOTSTRAP.isInitialized();
+	}
+
 	/**
 	 * @return the backing didums provider
 	 */
 	public static DidumsProvider getProvider() {
-		return PROVIDER;
+		return BOOTSTRAP.getProvider();
 	}
 
 	/**
@@ -64,12 +205,13 @@ public final class Didums {
 	 */
 	public static <T> boolean hasService(final Class<T> service, final Annotation... qualifiers) {
 		// Provider
-		T impl = PROVIDER.getService(service, qualifiers);
+		ServiceKey key = ServiceKey.of(service, qualifiers);
+		T impl = getProviderService(key, service, qualifiers);
 		if (impl != null) {
 			return true;
 		}
 		// Fallback to basic factory
-		return Factory.hasImplementation(service, buildFactoryQualifiers(qualifiers));
+		return Factory.hasImplementation(getFactoryKey(key, service, qualifiers));
 	}
 
 	/**
@@ -83,10 +225,11 @@ public final class Didums {
 	 */
 	public static <T> T getService(final Class<T> service, final Annotation... qualifiers) {
 		// Provider
-		T impl = PROVIDER.getService(service, qualifiers);
+		ServiceKey key = ServiceKey.of(service, qualifiers);
+		T impl = getProviderService(key, service, qualifiers);
 		// Fallback to basic factory
 		if (impl == null) {
-			impl = Factory.newInstance(service, buildFactoryQualifiers(qualifiers));
+			impl = Factory.newInstance(getFactoryKey(key, service, qualifiers));
 		}
 		return impl;
 	}
@@ -104,14 +247,103 @@ public final class Didums {
 	 */
 	public static <T, U extends T> T getService(final Class<T> service, final Class<U> defaultImpl, final Annotation... qualifiers) {
 		// Provider
-		T impl = PROVIDER.getService(service, qualifiers);
+		ServiceKey key = ServiceKey.of(service, qualifiers);
+		T impl = getProviderService(key, service, qualifiers);
 		// Fallback to basic factory
 		if (impl == null) {
-			impl = Factory.newInstance(service, defaultImpl, buildFactoryQualifiers(qualifiers));
+			impl = Factory.newInstance(getFactoryKey(key, service, qualifiers), defaultImpl);
 		}
 		return impl;
 	}
 
+	/**
+	 * Retrieve a handle to this service and qualifiers that can be held and reused.
+	 * <p>
+	 * The handle resolves the service once and then goes straight to the provider or factory fallback on each
+	 * {@link ServiceHandle#get()}. The handle resolves again if bindings are added via Didums.
+	 * </p>
+	 *
+	 * @param <T> the service class type
+	 * @param service the service class
+	 * @param qualifiers the service qualifiers
+	 * @return a handle to the service
+	 */
+	public static <T> ServiceHandle<T> lookup(final Class<T> service, final Annotation... qualifiers) {
+		return lookup(service, null, qualifiers);
+	}
+
+	/**
+	 * Retrieve a handle to this service and qualifiers that can be held and reused, using the default implementation
+	 * if there is no binding or factory implementation.
+	 *
+	 * @param <T> the service class type
+	 * @param <U> the default service implementation type
+	 * @param service the service class
+	 * @param defaultImpl the default implementation if an implementation is not found
+	 * @param qualifiers the service qualifiers
+	 * @return a handle to the service
+	 */
+	public static <T, U extends T> ServiceHandle<T> lookup(final Class<T> service, final Class<U> defaultImpl, final Annotation... qualifiers) {
+		ServiceKey key = ServiceKey.of(service, qualifiers);
+		Annotation[] handleQualifiers = qualifiers == null ? new Annotation[0] : qualifiers.clone();
+		return new ServiceHandle<>(BOOTSTRAP.getProvider(), BINDING_VERSION, service, defaultImpl, getFactoryKey(key, service, qualifiers), handleQualifiers);
+	}
+
+	/**
+	 * Borrow an implementation for this service and qualifiers. Fallsback to the Factory Implementation if there is no
+	 * binding.
+	 * <p>
+	 * If the implementation class has a {@link Pooled} annotation the instance is taken from a pool and returned to the
+	 * pool when closed. Pooled implementations must not be bound as singletons.
+	 * </p>
+	 *
+	 * @param <T> the service class type
+	 * @param service the service class
+	 * @param qualifiers the service qualifiers
+	 * @return the borrowed implementation for this service and qualifiers
+	 */
+	public static <T> PooledInstance<T> borrow(final Class<T> service, final Annotation... qualifiers) {
+		return borrow(service, null, qualifiers);
+	}
+
+	/**
+	 * Borrow an implementation for this service and qualifiers. Fallsback to the Factory Implementation if there is no
+	 * binding.
+	 * <p>
+	 * If the implementation class has a {@link Pooled} annotation the instance is taken from a pool and returned to the
+	 * pool when closed. Pooled implementations must not be bound as singletons.
+	 * </p>
+	 *
+	 * @param <T> the service class type
+	 * @param <U> the default service implementation type
+	 * @param service the service class
+	 * @param defaultImpl the default implementation if an implementation is not found
+	 * @param qualifiers the service qualifiers
+	 * @return the borrowed implementation for this service and qualifiers
+	 */
+	public static <T, U extends T> PooledInstance<T> borrow(final Class<T> service, final Class<U> defaultImpl, final Annotation... qualifiers) {
+		ServiceKey key = ServiceKey.of(service, qualifiers);
+		int version = BINDING_VERSION.get();
+		InstancePool<T> pool = (InstancePool<T>) key.getProviderPool(version);
+		if (pool != null) {
+			return pool.borrow();
+		}
+		// Provider
+		T impl = getProviderService(key, service, qualifiers);
+		// Fallback to basic factory
+		if (impl == null) {
+			return Factory.borrow(getFactoryKey(key, service, qualifiers), defaultImpl);
+		}
+		PoolOptions options = PoolOptions.forClass(impl.getClass());
+		if (options == null) {
+			return new PooledInstance<>(null, impl);
+		}
+		final Annotation[] poolQualifiers = qualifiers == null ? new Annotation[0] : qualifiers.clone();
+		pool = (InstancePool<T>) key.setProviderPool(version,
+				new InstancePool<>(options, () -> BOOTSTRAP.getProvider().getService(service, poolQualifiers)));
+		return pool.lend(impl);
+	}
+
 	/**
 	 * Create and inject a class with its dependencies.
 	 *
@@ -120,7 +352,7 @@ public final class Didums {
 	 * @return an instance of this class with injected dependencies
 	 */
 	public static <T> T createAndInject(final Class<T> createMe) {
-		return PROVIDER.createAndInject(createMe);
+		return BOOTSTRAP.getProvider().createAndInject(createMe);
 	}
 
 	/**
@@ -133,7 +365,7 @@ public final class Didums {
 	 * @param qualifiers the service qualifiers
 	 */
 	public static <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final Annotation... qualifiers) {
-		PROVIDER.bind(contract, contractImpl, true, qualifiers);
+		bind(contract, contractImpl, true, qualifiers);
 	}
 
 	/**
@@ -148,27 +380,108 @@ public final class Didums {
 	 */
 	public static <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl,
 			final boolean singleton, final Annotation... qualifiers) {
-		PROVIDER.bind(contract, contractImpl, singleton, qualifiers);
+		BOOTSTRAP.getProvider().bind(contract, contractImpl, singleton, qualifiers);
+		clearProviderMisses();
 	}
 
 	/**
-	 * Create factory parameter qualifiers.
+	 * Bind a cached implementation to a service contract and qualifiers.
+	 *
+	 * @param <T> the service class type
+	 * @param <U> the service implementation type
+	 * @param contract the service contract to bind the implementation to
+	 * @param contractImpl the service contract implementation class to bind
+	 * @param cache the cache settings of the implementation
+	 * @param qualifiers the service qualifiers
+	 * @see DidumsProvider#bind(Class, Class, CacheOptions, Annotation...)
+	 */
+	public static <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl,
+			final CacheOptions cache, final Annotation... qualifiers) {
+		BOOTSTRAP.getProvider().bind(contract, contractImpl, cache, qualifiers);
+		clearProviderMisses();
+	}
+
+	/**
+	 * Bind a collection of implementations to their service contracts and qualifiers in one operation.
+	 *
+	 * @param bindings the bindings to add
+	 */
+	public static void bindAll(final Collection<? extends Binding<?>> bindings) {
+		BOOTSTRAP.getProvider().bindAll(bindings);
+		clearProviderMisses();
+	}
+
+	/**
+	 * Retrieve the implementation from the provider, skipping the provider if it is already known to have no binding.
+	 *
+	 * @param <T> the service class type
+	 * @param key the service key
+	 * @param service the service class
+	 * @param qualifiers the service qualifiers
+	 * @return the implementation from the provider or null if the provider has no binding
+	 */
+	private static <T> T getProviderService(final ServiceKey key, final Class<T> service, final Annotation... qualifiers) {
+		DidumsMetrics.recordLookup(service);
+		DidumsProvider provider = BOOTSTRAP.getProvider();
+		int version = BINDING_VERSION.get();
+		if (key.isProviderMiss(version)) {
+			DidumsMetrics.recordCacheHit(PROVIDER_MISSES_CACHE);
+			DidumsMetrics.recordProviderResult(false);
+			return null;
+		}
+		DidumsMetrics.recordCacheMiss(PROVIDER_MISSES_CACHE);
+		T impl = provider.getService(service, qualifiers);
+		DidumsMetrics.recordProviderResult(impl != null);
+		if (impl == null) {
+			// A binding added while looking up changes the version, so the miss is not used
+			key.setProviderMiss(version);
+		}
+		return impl;
+	}
+
+	/**
+	 * Clear the services the provider is known to have no binding for.
+	 */
+	private static void clearProviderMisses() {
+		BINDING_VERSION.incrementAndGet();
+	}
+
+	/**
+	 * Retrieve the (cached) factory contract key for the service and qualifiers.
 	 * <p>
-	 * This does depend on the toString on the annotation to be appropriate for parameter keys.
+	 * The qualifiers are converted to factory parameter keys via {@link QualifierKey}.
 	 * </p>
 	 *
+	 * @param <T> the service class type
+	 * @param key the service key
+	 * @param service the service class
+	 * @param qualifiers the service qualifiers
+	 * @return the factory contract key
+	 */
+	private static <T> ContractKey<T> getFactoryKey(final ServiceKey key, final Class<T> service, final Annotation... qualifiers) {
+		ContractKey<T> factoryKey = (ContractKey<T>) key.getFactoryKey();
+		if (factoryKey == null) {
+			factoryKey = new ContractKey<>(service, buildFactoryQualifiers(qualifiers));
+			key.setFactoryKey(factoryKey);
+		}
+		return factoryKey;
+	}
+
+	/**
+	 * Create factory parameter qualifiers.
+	 *
 	 * @param qualifiers the service qualifiers
 	 * @return the array of parameter keys
 	 */
-	private static String[] buildFactoryQualifiers(final Annotation[] qualifiers) {
+	private static String[] buildFactoryQualifiers(final Annotation... qualifiers) {
 		if (qualifiers == null || qualifiers.length == 0) {
 			return new String[0];
 		}
-		List<String> keys = new ArrayList<>();
-		for (Annotation qualifier : qualifiers) {
-			keys.add(qualifier.toString());
+		String[] keys = new String[qualifiers.length];
+		for (int i = 0; i < qualifiers.length; i++) {
+			keys[i] = QualifierKey.getKey(qualifiers[i]);
 		}
-		return keys.toArray(new String[0]);
+		return keys;
 	}
 
 }
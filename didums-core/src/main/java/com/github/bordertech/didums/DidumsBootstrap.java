@@ -0,0 +1,116 @@
+package com.github.bordertech.didums;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Creates and configures the didums provider on first use.
+ * <p>
+ * Only one thread creates the provider and the other threads wait for it. If the provider fails to be created or
+ * configured, the exception is thrown to the caller and the next caller tries again with a new provider. A provider
+ * that failed to be configured is closed if it is {@link AutoCloseable}, so a provider backed by shared state can
+ * release the bindings already added before the retry.
+ * </p>
+ * <p>
+ * Lookups made while configuring the provider (eg from a {@link DidumsBinder}) on the configuring thread, or on a
+ * thread running the binders in parallel, are given the provider being configured.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+final class DidumsBootstrap {
+
+	private final Supplier<DidumsProvider> creator;
+
+	private final Consumer<DidumsProvider> configurer;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final AtomicReference<DidumsProvider> provider = new AtomicReference<>();
+
+	/**
+	 * Provider being configured.
+	 */
+	private final AtomicReference<DidumsProvider> configuring = new AtomicReference<>();
+
+	/**
+	 * @param creator creates the provider
+	 * @param configurer configures the provider before it is used
+	 */
+	DidumsBootstrap(final Supplier<DidumsProvider> creator, final Consumer<DidumsProvider> configurer) {
+		this.creator = creator;
+		this.configurer = configurer;
+	}
+
+	/**
+	 * @return true if the provider has been created and configured, does not block
+	 */
+	boolean isInitialized() {
+		return provider.get() != null;
+	}
+
+	/**
+	 * @return the configured provider, creating it if necessary
+	 */
+	DidumsProvider getProvider() {
+		DidumsProvider current = provider.get();
+		return current == null ? initialize() : current;
+	}
+
+	/**
+	 * @return the configured provider
+	 */
+	private DidumsProvider initialize() {
+		// Lookup from a binder running in parallel, which would wait on the configuring thread
+		DidumsProvider binding = configuring.get();
+		if (binding != null && BinderRunner.isBinderThread()) {
+			return binding;
+		}
+		lock.lock();
+		try {
+			DidumsProvider current = provider.get();
+			if (current != null) {
+				return current;
+			}
+			// Lookup from the configuring thread
+			current = configuring.get();
+			if (current != null) {
+				return current;
+			}
+			current = creator.get();
+			configuring.set(current);
+			try {
+				configurer.accept(current);
+			} catch (RuntimeException | Error e) {
+				close(current, e);
+				throw e;
+			} finally {
+				configuring.set(null);
+			}
+			provider.set(current);
+			return current;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Close a provider that failed to be configured so the bindings already added are not kept for the retry.
+	 *
+	 * @param failed the provider that failed to be configured
+	 * @param cause the configure failure
+	 */
+	private static void close(final DidumsProvider failed, final Throwable cause) {
+		if (failed instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) failed).close();
+			} catch (Exception e) {
+				cause.addSuppressed(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,347 @@
+package com.github.bordertech.didums;
+
+import com.github.bordertech.config.Config;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Lookup and instantiation metrics for {@link Didums}, {@link Factory} and the providers.
+ * <p>
+ * Metrics are disabled by default and are enabled by setting the following property:
+ * </p>
+ * <pre>
+ * bordertech.didums.metrics.enabled=true
+ * </pre>
+ * <p>
+ * The property is read once at startup. When disabled, the recording methods do nothing. When enabled, the metrics are
+ * registered as the JMX MBean <code>com.github.bordertech.didums:type=DidumsMetrics</code>.
+ * </p>
+ * <p>
+ * Providers can record the use of their own caches via {@link #recordCacheHit(String)},
+ * {@link #recordCacheMiss(String)} and {@link #recordCacheEviction(String)}.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public final class DidumsMetrics implements DidumsMetricsMXBean {
+
+	private static final Log LOG = LogFactory.getLog(DidumsMetrics.class);
+
+	/**
+	 * Parameter key to enable the metrics.
+	 */
+	public static final String ENABLED_PARAM = "bordertech.didums.metrics.enabled";
+
+	/**
+	 * The JMX object name of the metrics MBean.
+	 */
+	public static final String OBJECT_NAME = "com.github.bordertech.didums:type=DidumsMetrics";
+
+	private static final boolean ENABLED = Config.getInstance().getBoolean(ENABLED_PARAM, false);
+
+	/**
+	 * Upper bound (exclusive) of each latency bucket in nanoseconds.
+	 */
+	private static final long[] LATENCY_BOUNDS = {1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L};
+
+	private static final String[] LATENCY_LABELS = {"<1us", "<10us", "<100us", "<1ms", "<10ms", "<100ms", ">=100ms"};
+
+	private static final DidumsMetrics INSTANCE = new DidumsMetrics();
+
+	private final LongAdder lookups = new LongAdder();
+
+	private final Map<String, LongAdder> contractLookups = new ConcurrentHashMap<>();
+
+	private final LongAdder providerHits = new LongAdder();
+
+	private final LongAdder factoryFallbacks = new LongAdder();
+
+	private final Map<String, LongAdder> cacheHits = new ConcurrentHashMap<>();
+
+	private final Map<String, LongAdder> cacheMisses = new ConcurrentHashMap<>();
+
+	private final Map<String, LongAdder> cacheEvictions = new ConcurrentHashMap<>();
+
+	private final LongAdder singletonCreations = new LongAdder();
+
+	private final LongAdder instantiations = new LongAdder();
+
+	private final LongAdder[] latencies = new LongAdder[LATENCY_LABELS.length];
+
+	private final LongAdder factoryExceptions = new LongAdder();
+
+	static {
+		if (ENABLED) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+			} catch (JMException e) {
+				LOG.warn("Could not register Didums metrics MBean. " + e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Create a metrics instance. The shared instance is available via {@link #getInstance()}.
+	 */
+	DidumsMetrics() {
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @return true if metrics are enabled
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * @return the shared metrics instance
+	 */
+	public static DidumsMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Record a cache hit.
+	 *
+	 * @param cache the cache name
+	 */
+	public static void recordCacheHit(final String cache) {
+		if (ENABLED) {
+			INSTANCE.addCacheHit(cache);
+		}
+	}
+
+	/**
+	 * Record a cache miss.
+	 *
+	 * @param cache the cache name
+	 */
+	public static void recordCacheMiss(final String cache) {
+		if (ENABLED) {
+			INSTANCE.addCacheMiss(cache);
+		}
+	}
+
+	/**
+	 * Record an entry removed from a cache.
+	 *
+	 * @param cache the cache name
+	 */
+	public static void recordCacheEviction(final String cache) {
+		if (ENABLED) {
+			INSTANCE.addCacheEviction(cache);
+		}
+	}
+
+	/**
+	 * @param contract the contract looked up
+	 */
+	static void recordLookup(final Class<?> contract) {
+		if (ENABLED) {
+			INSTANCE.addLookup(contract);
+		}
+	}
+
+	/**
+	 * @param providerHit true if the provider had a binding, false if the Factory was used
+	 */
+	static void recordProviderResult(final boolean providerHit) {
+		if (ENABLED) {
+			INSTANCE.addProviderResult(providerHit);
+		}
+	}
+
+	/**
+	 * Record a singleton instance created by the Factory.
+	 */
+	static void recordSingletonCreation() {
+		if (ENABLED) {
+			INSTANCE.addSingletonCreation();
+		}
+	}
+
+	/**
+	 * @param nanos the time taken to create the instance in nanoseconds
+	 */
+	static void recordInstantiation(final long nanos) {
+		if (ENABLED) {
+			INSTANCE.addInstantiation(nanos);
+		}
+	}
+
+	/**
+	 * Record a factory exception.
+	 */
+	static void recordFactoryException() {
+		if (ENABLED) {
+			INSTANCE.addFactoryException();
+		}
+	}
+
+	/**
+	 * @param contract the contract looked up
+	 */
+	void addLookup(final Class<?> contract) {
+		lookups.increment();
+		contractLookups.computeIfAbsent(contract.getName(), key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * @param providerHit true if the provider had a binding, false if the Factory was used
+	 */
+	void addProviderResult(final boolean providerHit) {
+		if (providerHit) {
+			providerHits.increment();
+		} else {
+			factoryFallbacks.increment();
+		}
+	}
+
+	/**
+	 * @param cache the cache name
+	 */
+	void addCacheHit(final String cache) {
+		cacheHits.computeIfAbsent(cache, key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * @param cache the cache name
+	 */
+	void addCacheMiss(final String cache) {
+		cacheMisses.computeIfAbsent(cache, key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * @param cache the cache name
+	 */
+	void addCacheEviction(final String cache) {
+		cacheEvictions.computeIfAbsent(cache, key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Add a singleton creation.
+	 */
+	void addSingletonCreation() {
+		singletonCreations.increment();
+	}
+
+	/**
+	 * @param nanos the time taken to create the instance in nanoseconds
+	 */
+	void addInstantiation(final long nanos) {
+		instantiations.increment();
+		int bucket = 0;
+		while (bucket < LATENCY_BOUNDS.length && nanos >= LATENCY_BOUNDS[bucket]) {
+			bucket++;
+		}
+		latencies[bucket].increment();
+	}
+
+	/**
+	 * Add a factory exception.
+	 */
+	void addFactoryException() {
+		factoryExceptions.increment();
+	}
+
+	@Override
+	public long getLookupCount() {
+		return lookups.sum();
+	}
+
+	@Override
+	public Map<String, Long> getLookupCounts() {
+		return sums(contractLookups);
+	}
+
+	@Override
+	public long getProviderHitCount() {
+		return providerHits.sum();
+	}
+
+	@Override
+	public long getFactoryFallbackCount() {
+		return factoryFallbacks.sum();
+	}
+
+	@Override
+	public Map<String, Long> getCacheHitCounts() {
+		return sums(cacheHits);
+	}
+
+	@Override
+	public Map<String, Long> getCacheMissCounts() {
+		return sums(cacheMisses);
+	}
+
+	@Override
+	public Map<String, Long> getCacheEvictionCounts() {
+		return sums(cacheEvictions);
+	}
+
+	@Override
+	public long getSingletonCreationCount() {
+		return singletonCreations.sum();
+	}
+
+	@Override
+	public long getInstantiationCount() {
+		return instantiations.sum();
+	}
+
+	@Override
+	public Map<String, Long> getInstantiationLatencyHistogram() {
+		Map<String, Long> histogram = new LinkedHashMap<>();
+		for (int i = 0; i < latencies.length; i++) {
+			histogram.put(LATENCY_LABELS[i], latencies[i].sum());
+		}
+		return histogram;
+	}
+
+	@Override
+	public long getFactoryExceptionCount() {
+		return factoryExceptions.sum();
+	}
+
+	@Override
+	public void reset() {
+		lookups.reset();
+		contractLookups.clear();
+		providerHits.reset();
+		factoryFallbacks.reset();
+		cacheHits.clear();
+		cacheMisses.clear();
+		cacheEvictions.clear();
+		singletonCreations.reset();
+		instantiations.reset();
+		for (LongAdder latency : latencies) {
+			latency.reset();
+		}
+		factoryExceptions.reset();
+	}
+
+	/**
+	 * @param counters the counters
+	 * @return the counter sums sorted by key
+	 */
+	private static Map<String, Long> sums(final Map<String, LongAdder> counters) {
+		Map<String, Long> sums = new TreeMap<>();
+		for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+			sums.put(entry.getKey(), entry.getValue().sum());
+		}
+		return sums;
+	}
+
+}
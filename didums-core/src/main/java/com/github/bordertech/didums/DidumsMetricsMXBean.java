@@ -0,0 +1,73 @@
+package com.github.bordertech.didums;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link DidumsMetrics}.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public interface DidumsMetricsMXBean {
+
+	/**
+	 * @return the number of service lookups via Didums
+	 */
+	long getLookupCount();
+
+	/**
+	 * @return the number of service lookups keyed by contract class name
+	 */
+	Map<String, Long> getLookupCounts();
+
+	/**
+	 * @return the number of lookups the provider had a binding for
+	 */
+	long getProviderHitCount();
+
+	/**
+	 * @return the number of lookups that fell back to the Factory
+	 */
+	long getFactoryFallbackCount();
+
+	/**
+	 * @return the number of cache hits keyed by cache name
+	 */
+	Map<String, Long> getCacheHitCounts();
+
+	/**
+	 * @return the number of cache misses keyed by cache name
+	 */
+	Map<String, Long> getCacheMissCounts();
+
+	/**
+	 * @return the number of entries removed from a cache keyed by cache name
+	 */
+	Map<String, Long> getCacheEvictionCounts();
+
+	/**
+	 * @return the number of singleton instances created by the Factory
+	 */
+	long getSingletonCreationCount();
+
+	/**
+	 * @return the number of instances created by the Factory
+	 */
+	long getInstantiationCount();
+
+	/**
+	 * @return the number of Factory instantiations keyed by latency bucket
+	 */
+	Map<String, Long> getInstantiationLatencyHistogram();
+
+	/**
+	 * @return the number of {@link FactoryException}s created
+	 */
+	long getFactoryExceptionCount();
+
+	/**
+	 * Reset the metrics.
+	 */
+	void reset();
+
+}
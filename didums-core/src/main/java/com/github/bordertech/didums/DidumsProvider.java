@@ -2,6 +2,10 @@ package com.github.bordertech.didums;
 
 import com.github.bordertech.config.Config;
 import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.logging.LogFactory;
 
 /**
  * Dependency Injection Provider.
@@ -56,4 +60,60 @@ public interface DidumsProvider {
 	 * @param qualifiers the service qualifiers
 	 */
 	<T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers);
+
+	/**
+	 * Bind a cached implementation to a service contract and qualifiers.
+	 * <p>
+	 * The instance is kept for the time to live (or until released when memory is low) and then a new instance is
+	 * created on the next lookup. The default implementation logs a warning and binds the implementation unscoped, so a
+	 * new instance is created on each lookup.
+	 * </p>
+	 *
+	 * @param <T> the service class type
+	 * @param <U> the service implementation type
+	 * @param contract the service contract to bind the implementation to
+	 * @param contractImpl the service contract implementation class to bind
+	 * @param cache the cache settings of the implementation
+	 * @param qualifiers the service qualifiers
+	 * @see InstanceCache
+	 */
+	default <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final CacheOptions cache, final Annotation... qualifiers) {
+		LogFactory.getLog(DidumsProvider.class).warn("Provider [" + getClass().getName() + "] does not support cached bindings. "
+				+ "Binding [" + contractImpl.getName() + "] unscoped.");
+		bind(contract, contractImpl, false, qualifiers);
+	}
+
+	/**
+	 * Bind a collection of implementations to their service contracts and qualifiers.
+	 * <p>
+	 * The default implementation binds each one in turn. Providers should override this to add the bindings in one
+	 * operation where the backing framework supports it.
+	 * </p>
+	 *
+	 * @param bindings the bindings to add
+	 */
+	@SuppressWarnings("unchecked")
+	default void bindAll(final Collection<? extends Binding<?>> bindings) {
+		for (Binding<?> binding : bindings) {
+			if (binding.getCache() == null) {
+				bind((Class) binding.getContract(), (Class) binding.getContractImpl(), binding.isSingleton(), binding.getQualifiers());
+			} else {
+				bind((Class) binding.getContract(), (Class) binding.getContractImpl(), binding.getCache(), binding.getQualifiers());
+			}
+		}
+	}
+
+	/**
+	 * Retrieve the bindings added via this provider, so the dependencies between the bound services can be analyzed.
+	 * <p>
+	 * Bindings added directly via the backing DI framework are not included. The default implementation returns no
+	 * bindings.
+	 * </p>
+	 *
+	 * @return the bindings added via this provider
+	 * @see DependencyGraph
+	 */
+	default List<Binding<?>> getBindings() {
+		return Collections.emptyList();
+	}
 }
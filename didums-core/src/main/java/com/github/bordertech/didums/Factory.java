@@ -1,12 +1,35 @@
 package com.github.bordertech.didums;
 
 import com.github.bordertech.config.Config;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import javax.inject.Singleton;
-import org.apache.commons.lang.StringUtils;
+import org.apache.commons.configuration.Configuration;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -15,7 +38,9 @@ import org.apache.commons.logging.LogFactory;
  * <p>
  * Provides a generic mechanism for obtaining objects which implement a requested interface. A new object will be
  * created each time the <code>newInstance</code> method is called unless the implementing class is annotated with
- * {@link Singleton} then only one instance is created.</p>
+ * {@link Singleton} then only one instance is created. Instances of classes annotated with {@link Cached} are kept
+ * for their time to live. Instances of classes annotated with {@link Pooled} can be borrowed and returned via
+ * <code>borrow</code>.</p>
  *
  * <p>
  * The runtime {@link Config} class is used to look up the implementing class, based on the requested interface
@@ -50,6 +75,25 @@ import org.apache.commons.logging.LogFactory;
  * implementation when calling <code>newInstance</code> and no configuration property is required. A configuration
  * property can still be used to override the default.
  * </p>
+ * <p>
+ * The implementation classes resolved for a parameter key (including no implementation being defined) are cached. When
+ * {@link Config} is reloaded or its listeners are notified, only the cached entries whose parameter key value changed
+ * are cleared. Singletons of an implementation that did not change are kept. A cached lookup does not read the
+ * configuration, so a property changed directly on the configuration at runtime is only picked up once
+ * {@link Config#notifyListeners()} is called, and a touchfile reload once the configuration is next retrieved via
+ * {@link Config#getInstance()}.
+ * </p>
+ * <p>
+ * Singleton instances are held against their implementation class rather than the class name. A class with the same
+ * name loaded by another class loader has its own instance, and the instances are released with their class loader
+ * when an application is undeployed. The resolved implementations and the {@link FactoryRegistry} services are held
+ * per context class loader, so each application has its own registry.
+ * </p>
+ * <p>
+ * Implementations can also be registered by a {@link FactoryRegistry}, usually generated at compile time by the
+ * <code>didums-processor</code> annotation processor. Registered implementations are used when no implementation is
+ * defined in the configuration and are created without reflection.
+ * </p>
  *
  * @see Config
  * @see Didums
@@ -62,11 +106,118 @@ public final class Factory {
 
 	private static final Log LOG = LogFactory.getLog(Factory.class);
 
-	private static final String PREFIX = "bordertech.factory.impl.";
+	/**
+	 * Prefix of the parameter keys that define the implementations.
+	 */
+	static final String PREFIX = "bordertech.factory.impl.";
+
+	/**
+	 * The value of a parameter key that is not defined.
+	 */
+	private static final String[] NO_VALUES = new String[0];
+
+	/**
+	 * Metrics cache name of the singletons.
+	 */
+	private static final String SINGLETON_CACHE = "factory.singletons";
+
+	/**
+	 * Metrics cache name of the resolved implementations.
+	 */
+	private static final String IMPL_CACHE = "factory.implClasses";
+
+	/**
+	 * Metrics cache name of the resolved multiple implementations.
+	 */
+	private static final String MULTI_IMPL_CACHE = "factory.multiImplClasses";
+
+	/**
+	 * Metrics cache name of the cached instances.
+	 */
+	private static final String CACHED_CACHE = "factory.cached";
 
-	private static final String QUALIFIER_SEPERATOR = ".";
+	/**
+	 * The resolved implementations and registry of each context class loader. The loader is held weakly and the state
+	 * only holds classes weakly, so the state is released with its class loader.
+	 */
+	private static final Map<ClassLoader, LoaderState> LOADER_STATES = new WeakHashMap<>();
+
+	/**
+	 * Lock of the loader states.
+	 */
+	private static final ReentrantLock LOADER_STATES_LOCK = new ReentrantLock();
 
-	private static final Map<String, Object> SINGLETONS = new HashMap<>();
+	/**
+	 * The state of the last class loader used, so a lookup from the same class loader does not lock.
+	 */
+	private static final AtomicReference<LoaderState> LAST_LOADER_STATE = new AtomicReference<>();
+
+	/**
+	 * Instantiator registered by a {@link FactoryRegistry} for an implementation class. Held against the class so it is
+	 * released if the class is unloaded.
+	 */
+	private static final ClassValue<AtomicReference<Instantiator>> REGISTERED = new ClassValue<AtomicReference<Instantiator>>() {
+		@Override
+		protected AtomicReference<Instantiator> computeValue(final Class<?> type) {
+			return new AtomicReference<>();
+		}
+	};
+
+	/**
+	 * Incremented each time the config changes so a lookup racing with a reload does not cache a stale entry.
+	 */
+	private static final AtomicInteger CONFIG_VERSION = new AtomicInteger();
+
+	/**
+	 * Instantiator for each implementation class. Held against the class so it is released if the class is unloaded.
+	 */
+	private static final ClassValue<Instantiator> INSTANTIATORS = new ClassValue<Instantiator>() {
+		@Override
+		protected Instantiator computeValue(final Class<?> type) {
+			// Make sure the registries that can register the class have been loaded
+			getLoaderState();
+			getLoaderState(type.getClassLoader());
+			Instantiator registered = REGISTERED.get(type).get();
+			if (registered != null) {
+				return registered;
+			}
+			return Instantiator.forConstructor(type, type.isAnnotationPresent(Singleton.class));
+		}
+	};
+
+	/**
+	 * Singleton instance of each implementation class. Held against the class, rather than the class name, so classes
+	 * with the same name from different class loaders have their own instance and the instance is released if the class
+	 * is unloaded.
+	 */
+	private static final ClassValue<SingletonHolder> SINGLETONS = new ClassValue<SingletonHolder>() {
+		@Override
+		protected SingletonHolder computeValue(final Class<?> type) {
+			return new SingletonHolder();
+		}
+	};
+
+	/**
+	 * Cached instances of the {@link Cached} implementation classes, keyed by class and bounded by the configured
+	 * maximum size.
+	 */
+	private static final InstanceCache CACHED_INSTANCES = new InstanceCache(CACHED_CACHE);
+
+	/**
+	 * Pool for each {@link Pooled} implementation class.
+	 */
+	private static final ClassValue<InstancePool<?>> POOLS = new ClassValue<InstancePool<?>>() {
+		@Override
+		protected InstancePool<?> computeValue(final Class<?> type) {
+			Instantiator instantiator = INSTANTIATORS.get(type);
+			return new InstancePool<>(instantiator.getPool(), () -> instantiate(instantiator));
+		}
+	};
+
+	static {
+		// Clear the cached implementations that changed when the config is reloaded
+		Config.addPropertyChangeListener(event -> clearImplCache());
+	}
 
 	/**
 	 * Private constructor.
@@ -86,7 +237,7 @@ public final class Factory {
 	 * @return an implementation of the contract, or null if no implementation defined
 	 */
 	public static <T> T newInstance(final Class<T> contract, final String... qualifiers) {
-		String suffix = getContractSuffixKey(contract, qualifiers);
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
 		return newInstance(suffix, null);
 	}
 
@@ -105,10 +256,42 @@ public final class Factory {
 	 * @return an implementation of the contract or the default implementation
 	 */
 	public static <T, U extends T> T newInstance(final Class<T> contract, final Class<U> defaultImpl, final String... qualifiers) {
-		String suffix = getContractSuffixKey(contract, qualifiers);
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
 		return newInstance(suffix, defaultImpl);
 	}
 
+	/**
+	 * Create an instance of the implementation defined for the contract key.
+	 * <p>
+	 * If the implementing class has a {@link Singleton} annotation then only one instance is created.
+	 * </p>
+	 *
+	 * @param <T> the contract type
+	 * @param key the contract key to find and create new implementation
+	 * @return an implementation of the contract
+	 */
+	public static <T> T newInstance(final ContractKey<T> key) {
+		return newInstance(key, null);
+	}
+
+	/**
+	 * Create an instance of the implementation defined for the contract key, or the default implementation if no
+	 * implementation defined.
+	 * <p>
+	 * If the implementing class has a {@link Singleton} annotation then only one instance is created.
+	 * </p>
+	 *
+	 * @param <T> the contract type
+	 * @param <U> the default contract implementation type
+	 * @param key the contract key to find and create new implementation
+	 * @param defaultImpl the default implementation if an implementation is not found
+	 * @return an implementation of the contract or the default implementation
+	 */
+	public static <T, U extends T> T newInstance(final ContractKey<T> key, final Class<U> defaultImpl) {
+		Class<T> clazz = resolveImplClass(key.getKeySuffix(), key.getParamKey(), (Class<T>) defaultImpl);
+		return createInstance(clazz);
+	}
+
 	/**
 	 * Create an instance of the implementation for the parameter key suffix.
 	 * <p>
@@ -136,21 +319,72 @@ public final class Factory {
 	 * @return a new implementation of the contract or the default implementation
 	 */
 	public static <T> T newInstance(final String keySuffix, final Class<T> defaultImpl) {
-		String implClassName = getImplClassName(keySuffix);
-		Class<T> clazz;
-		if (implClassName == null) {
-			if (defaultImpl == null) {
-				String paramKey = getParamKey(keySuffix);
-				LOG.fatal("There needs to be a parameter defined for " + paramKey);
-				throw new FactoryException("There needs to be a parameter defined for " + paramKey);
-			}
-			clazz = defaultImpl;
-		} else {
-			clazz = findClass(implClassName);
-		}
+		Class<T> clazz = resolveImplClass(keySuffix, null, defaultImpl);
 		return createInstance(clazz);
 	}
 
+	/**
+	 * Borrow an instance of the implementation defined for the contract.
+	 * <p>
+	 * If the implementing class has a {@link Pooled} annotation the instance is taken from its pool and returned to
+	 * the pool when closed. Otherwise the instance is created as per <code>newInstance</code>.
+	 * </p>
+	 *
+	 * @param <T> the contract type
+	 * @param contract the contract to find and borrow an implementation
+	 * @param qualifiers the contract qualifiers
+	 * @return the borrowed implementation of the contract
+	 */
+	public static <T> PooledInstance<T> borrow(final Class<T> contract, final String... qualifiers) {
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
+		return borrow(suffix, null, null);
+	}
+
+	/**
+	 * Borrow an instance of the implementation defined for the contract, or the default implementation if no
+	 * implementation defined.
+	 * <p>
+	 * If the implementing class has a {@link Pooled} annotation the instance is taken from its pool and returned to
+	 * the pool when closed. Otherwise the instance is created as per <code>newInstance</code>.
+	 * </p>
+	 *
+	 * @param <T> the contract type
+	 * @param <U> the default contract implementation type
+	 * @param contract the contract to find and borrow an implementation
+	 * @param defaultImpl the default implementation if an implementation is not found
+	 * @param qualifiers the contract qualifiers
+	 * @return the borrowed implementation of the contract or the default implementation
+	 */
+	public static <T, U extends T> PooledInstance<T> borrow(final Class<T> contract, final Class<U> defaultImpl, final String... qualifiers) {
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
+		return borrow(suffix, null, defaultImpl);
+	}
+
+	/**
+	 * Borrow an instance of the implementation defined for the contract key.
+	 *
+	 * @param <T> the contract type
+	 * @param key the contract key to find and borrow an implementation
+	 * @return the borrowed implementation of the contract
+	 */
+	public static <T> PooledInstance<T> borrow(final ContractKey<T> key) {
+		return borrow(key.getKeySuffix(), key.getParamKey(), null);
+	}
+
+	/**
+	 * Borrow an instance of the implementation defined for the contract key, or the default implementation if no
+	 * implementation defined.
+	 *
+	 * @param <T> the contract type
+	 * @param <U> the default contract implementation type
+	 * @param key the contract key to find and borrow an implementation
+	 * @param defaultImpl the default implementation if an implementation is not found
+	 * @return the borrowed implementation of the contract or the default implementation
+	 */
+	public static <T, U extends T> PooledInstance<T> borrow(final ContractKey<T> key, final Class<U> defaultImpl) {
+		return borrow(key.getKeySuffix(), key.getParamKey(), defaultImpl);
+	}
+
 	/**
 	 * Create instances of all defined implementations of the contract.
 	 * <p>
@@ -163,14 +397,90 @@ public final class Factory {
 	 * @return a list of implementations of the contract
 	 */
 	public static <T> List<T> newMultiInstances(final Class<T> contract, final String... qualifiers) {
-		String suffix = getContractSuffixKey(contract, qualifiers);
-		String[] classNames = getMultiImplClassName(suffix);
-		List<T> impls = new ArrayList<>();
-		for (String className : classNames) {
-			Class<T> clazz = findClass(className);
-			impls.add(createInstance(clazz));
-		}
-		return impls;
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
+		return newMultiInstances(suffix, null);
+	}
+
+	/**
+	 * Create instances of all defined implementations of the contract key.
+	 * <p>
+	 * If the implementing class has a {@link Singleton} annotation then only one instance is created.
+	 * </p>
+	 *
+	 * @param <T> the contract type
+	 * @param key the contract key to find and create new implementations
+	 * @return a list of implementations of the contract
+	 */
+	public static <T> List<T> newMultiInstances(final ContractKey<T> key) {
+		return newMultiInstances(key.getKeySuffix(), key.getParamKey());
+	}
+
+	/**
+	 * Retrieve the defined implementations of the contract, only creating each instance as it is iterated.
+	 * <p>
+	 * Each iteration creates new instances (or returns the {@link Singleton} instances). Implementations not iterated
+	 * are not created.
+	 * </p>
+	 *
+	 * @param <T> the contract type
+	 * @param contract the contract to find implementations
+	 * @param qualifiers the contract qualifiers
+	 * @return the implementations of the contract created as iterated
+	 */
+	public static <T> Iterable<T> newLazyMultiInstances(final Class<T> contract, final String... qualifiers) {
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
+		return newLazyMultiInstances(suffix, null);
+	}
+
+	/**
+	 * Retrieve the defined implementations of the contract key, only creating each instance as it is iterated.
+	 *
+	 * @param <T> the contract type
+	 * @param key the contract key to find implementations
+	 * @return the implementations of the contract created as iterated
+	 * @see #newLazyMultiInstances(Class, String...)
+	 */
+	public static <T> Iterable<T> newLazyMultiInstances(final ContractKey<T> key) {
+		return newLazyMultiInstances(key.getKeySuffix(), key.getParamKey());
+	}
+
+	/**
+	 * Stream the defined implementations of the contract, only creating each instance as it is consumed.
+	 * <p>
+	 * For example, <code>streamMultiInstances(Plugin.class).filter(...).findFirst()</code> only creates the
+	 * implementations up to the first match.
+	 * </p>
+	 *
+	 * @param <T> the contract type
+	 * @param contract the contract to find implementations
+	 * @param qualifiers the contract qualifiers
+	 * @return a stream of the implementations of the contract created as consumed
+	 */
+	public static <T> Stream<T> streamMultiInstances(final Class<T> contract, final String... qualifiers) {
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
+		return streamMultiInstances(suffix, null);
+	}
+
+	/**
+	 * Stream the defined implementations of the contract key, only creating each instance as it is consumed.
+	 *
+	 * @param <T> the contract type
+	 * @param key the contract key to find implementations
+	 * @return a stream of the implementations of the contract created as consumed
+	 * @see #streamMultiInstances(Class, String...)
+	 */
+	public static <T> Stream<T> streamMultiInstances(final ContractKey<T> key) {
+		return streamMultiInstances(key.getKeySuffix(), key.getParamKey());
+	}
+
+	/**
+	 * Check if the contract key has an implementation.
+	 *
+	 * @param key the contract key to test if an implementation has been defined
+	 * @return true if an implementation is available
+	 */
+	public static boolean hasImplementation(final ContractKey<?> key) {
+		return getImplClass(key.getKeySuffix(), key.getParamKey()).isDefined();
 	}
 
 	/**
@@ -181,7 +491,7 @@ public final class Factory {
 	 * @return true if an implementation is available
 	 */
 	public static boolean hasImplementation(final Class<?> contract, final String... qualifiers) {
-		String suffix = getContractSuffixKey(contract, qualifiers);
+		String suffix = ContractKey.buildKeySuffix(contract, qualifiers);
 		return hasImplementation(suffix);
 	}
 
@@ -192,7 +502,202 @@ public final class Factory {
 	 * @return true if an implementation is available
 	 */
 	public static boolean hasImplementation(final String keySuffix) {
-		return getImplClassName(keySuffix) != null;
+		return getImplClass(keySuffix, null).isDefined();
+	}
+
+	/**
+	 * @return the cache of the {@link Cached} implementation instances, so its size and eviction counts can be checked
+	 */
+	public static InstanceCache getCachedInstances() {
+		return CACHED_INSTANCES;
+	}
+
+	/**
+	 * Preload the implementations of all the contracts defined in the configuration or registered.
+	 *
+	 * @return a future that completes when the implementations are loaded
+	 * @see #preload(Executor)
+	 */
+	public static CompletableFuture<Void> preload() {
+		return preload(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Preload the implementations of all the contracts defined in the configuration or registered.
+	 *
+	 * @param executor the executor to run the preload tasks
+	 * @return a future that completes when the implementations are loaded
+	 * @see #preload(Collection, Executor)
+	 */
+	public static CompletableFuture<Void> preload(final Executor executor) {
+		Set<String> suffixes = new LinkedHashSet<>(getFactoryProperties(Config.getInstance()).keySet());
+		suffixes.addAll(getLoaderState().getRegistry().getKeySuffixes());
+		return preloadSuffixes(suffixes, executor);
+	}
+
+	/**
+	 * Preload the implementations of the contract keys.
+	 *
+	 * @param keys the contract keys to preload
+	 * @return a future that completes when the implementations are loaded
+	 * @see #preload(Collection, Executor)
+	 */
+	public static CompletableFuture<Void> preload(final Collection<? extends ContractKey<?>> keys) {
+		return preload(keys, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Preload the implementations of the contract keys ahead of use.
+	 * <p>
+	 * The implementation classes are resolved and loaded and the {@link Singleton} implementations are created, so the
+	 * first use of a contract does not pay these costs. Other implementations are not created. Each contract is loaded
+	 * as a separate task on the executor so independent singletons are created in parallel.
+	 * </p>
+	 * <p>
+	 * The future completes exceptionally if an implementation could not be loaded or created.
+	 * </p>
+	 *
+	 * @param keys the contract keys to preload
+	 * @param executor the executor to run the preload tasks
+	 * @return a future that completes when the implementations are loaded
+	 */
+	public static CompletableFuture<Void> preload(final Collection<? extends ContractKey<?>> keys, final Executor executor) {
+		Set<String> suffixes = new LinkedHashSet<>();
+		for (ContractKey<?> key : keys) {
+			suffixes.add(key.getKeySuffix());
+		}
+		return preloadSuffixes(suffixes, executor);
+	}
+
+	/**
+	 * @param suffixes the parameter key suffixes to preload
+	 * @param executor the executor to run the preload tasks
+	 * @return a future that completes when the implementations are loaded
+	 */
+	private static CompletableFuture<Void> preloadSuffixes(final Collection<String> suffixes, final Executor executor) {
+		// Preload with the context class loader of the caller, so the tasks use its registry
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		List<CompletableFuture<Void>> tasks = new ArrayList<>(suffixes.size());
+		for (String suffix : suffixes) {
+			tasks.add(CompletableFuture.runAsync(() -> preloadSuffix(suffix, loader), executor));
+		}
+		return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+	}
+
+	/**
+	 * Load the implementations for the parameter key suffix and create the singletons.
+	 *
+	 * @param suffix the parameter key suffix
+	 * @param loader the context class loader to preload with
+	 */
+	private static void preloadSuffix(final String suffix, final ClassLoader loader) {
+		Thread thread = Thread.currentThread();
+		ClassLoader original = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			ImplClass implClass = getImplClass(suffix, null);
+			if (implClass.isDefined()) {
+				preloadClass(implClass.getImplClass());
+			}
+			for (Class<?> clazz : getMultiImplClasses(suffix, null)) {
+				preloadClass(clazz);
+			}
+		} finally {
+			thread.setContextClassLoader(original);
+		}
+	}
+
+	/**
+	 * @param clazz the implementation class to load and create if a singleton
+	 */
+	private static void preloadClass(final Class<?> clazz) {
+		if (INSTANTIATORS.get(clazz).isSingleton()) {
+			createSingletonInstance(clazz);
+		}
+	}
+
+	/**
+	 * Borrow an instance of the implementation for the parameter key suffix.
+	 *
+	 * @param <T> the contract type
+	 * @param keySuffix the parameter key suffix for the implementation class name
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
+	 * @param defaultImpl the default implementation if an implementation is not found, or null
+	 * @return the borrowed implementation
+	 */
+	private static <T> PooledInstance<T> borrow(final String keySuffix, final String paramKey, final Class<? extends T> defaultImpl) {
+		Class<T> clazz = resolveImplClass(keySuffix, paramKey, (Class<T>) defaultImpl);
+		Instantiator instantiator = INSTANTIATORS.get(clazz);
+		if (instantiator.isSingleton()) {
+			return new PooledInstance<>(null, createSingletonInstance(clazz));
+		}
+		if (instantiator.getCache() != null) {
+			return new PooledInstance<>(null, createCachedInstance(clazz, instantiator));
+		}
+		if (instantiator.getPool() != null) {
+			return ((InstancePool<T>) POOLS.get(clazz)).borrow();
+		}
+		return new PooledInstance<>(null, instantiate(instantiator));
+	}
+
+	/**
+	 * Resolve the implementation class for the parameter key suffix.
+	 *
+	 * @param <T> the contract type
+	 * @param keySuffix the parameter key suffix for the implementation class name
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
+	 * @param defaultImpl the default implementation if an implementation is not found, or null
+	 * @return the implementation class
+	 */
+	private static <T> Class<T> resolveImplClass(final String keySuffix, final String paramKey, final Class<T> defaultImpl) {
+		ImplClass implClass = getImplClass(keySuffix, paramKey);
+		if (implClass.isDefined()) {
+			return implClass.getImplClass();
+		}
+		if (defaultImpl == null) {
+			String key = getParamKey(keySuffix, paramKey);
+			LOG.fatal("There needs to be a parameter defined for " + key);
+			throw new FactoryException("There needs to be a parameter defined for " + key);
+		}
+		return defaultImpl;
+	}
+
+	/**
+	 * Create instances of all defined implementations for the parameter key suffix.
+	 *
+	 * @param <T> the contract type
+	 * @param suffix the parameter key suffix for the implementation class names
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
+	 * @return a list of implementations
+	 */
+	private static <T> List<T> newMultiInstances(final String suffix, final String paramKey) {
+		List<Class<?>> classes = getMultiImplClasses(suffix, paramKey);
+		List<T> impls = new ArrayList<>(classes.size());
+		for (Class<?> clazz : classes) {
+			impls.add(createInstance((Class<T>) clazz));
+		}
+		return impls;
+	}
+
+	/**
+	 * @param <T> the contract type
+	 * @param suffix the parameter key suffix for the implementation class names
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
+	 * @return the implementations created as iterated
+	 */
+	private static <T> Iterable<T> newLazyMultiInstances(final String suffix, final String paramKey) {
+		List<Class<?>> classes = getMultiImplClasses(suffix, paramKey);
+		return () -> classes.stream().map(clazz -> (T) createInstance(clazz)).iterator();
+	}
+
+	/**
+	 * @param <T> the contract type
+	 * @param suffix the parameter key suffix for the implementation class names
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
+	 * @return a stream of the implementations created as consumed
+	 */
+	private static <T> Stream<T> streamMultiInstances(final String suffix, final String paramKey) {
+		return getMultiImplClasses(suffix, paramKey).stream().map(clazz -> (T) createInstance(clazz));
 	}
 
 	/**
@@ -218,91 +723,622 @@ public final class Factory {
 	 * @return a new class instance
 	 */
 	private static <T> T createInstance(final Class<T> clazz) {
+		Instantiator instantiator = INSTANTIATORS.get(clazz);
 
 		// Check singleton annotation
-		if (clazz.getAnnotation(Singleton.class) != null) {
+		if (instantiator.isSingleton()) {
 			return createSingletonInstance(clazz);
 		}
 
-		try {
-			return clazz.newInstance();
-		} catch (IllegalAccessException | InstantiationException e) {
-			throw new FactoryException("Failed to instantiate object of class " + clazz.getName(), e);
+		// Check cached annotation
+		if (instantiator.getCache() != null) {
+			return createCachedInstance(clazz, instantiator);
 		}
+
+		return instantiate(instantiator);
+	}
+
+	/**
+	 * Create a new instance via the instantiator, recording the time taken if metrics are enabled.
+	 *
+	 * @param <T> the contract type
+	 * @param instantiator the instantiator of the class
+	 * @return a new class instance
+	 */
+	private static <T> T instantiate(final Instantiator instantiator) {
+		if (!DidumsMetrics.isEnabled()) {
+			return instantiator.newInstance();
+		}
+		long start = System.nanoTime();
+		T obj = instantiator.newInstance();
+		DidumsMetrics.recordInstantiation(System.nanoTime() - start);
+		return obj;
 	}
 
 	/**
 	 * Create a singleton instance of the class.
+	 * <p>
+	 * Retrieving an existing instance does not lock. Creating an instance only locks on the class being created so
+	 * singletons of different classes can be created concurrently.
+	 * </p>
 	 *
 	 * @param <T> the contract type
 	 * @param clazz the class to create an instance
 	 * @return a new class instance
 	 */
-	private static synchronized <T> T createSingletonInstance(final Class<T> clazz) {
+	private static <T> T createSingletonInstance(final Class<T> clazz) {
 
 		// Check already have an instance
-		String key = clazz.getName();
-		if (SINGLETONS.containsKey(key)) {
-			return (T) SINGLETONS.get(clazz.getName());
+		SingletonHolder holder = SINGLETONS.get(clazz);
+		T obj = (T) holder.getInstance();
+		if (obj != null) {
+			DidumsMetrics.recordCacheHit(SINGLETON_CACHE);
+			return obj;
 		}
+		DidumsMetrics.recordCacheMiss(SINGLETON_CACHE);
 
-		// Create a single instance and put in the MAP
-		try {
-			T obj = clazz.newInstance();
-			SINGLETONS.put(key, obj);
+		// Create a single instance and put in the holder of the class
+		synchronized (holder) {
+			obj = (T) holder.getInstance();
+			if (obj == null) {
+				obj = instantiate(INSTANTIATORS.get(clazz));
+				holder.setInstance(obj);
+				DidumsMetrics.recordSingletonCreation();
+			}
 			return obj;
-		} catch (IllegalAccessException | InstantiationException e) {
-			throw new FactoryException("Failed to instantiate object of class " + clazz.getName(), e);
 		}
 	}
 
 	/**
-	 * Retrieve the implementation class name for the parameter key suffix.
+	 * Retrieve the cached instance of the class, or create a new instance if none cached or its time to live has
+	 * passed.
+	 *
+	 * @param <T> the contract type
+	 * @param clazz the class to create an instance
+	 * @param instantiator the instantiator of the class
+	 * @return the cached or new class instance
+	 */
+	private static <T> T createCachedInstance(final Class<T> clazz, final Instantiator instantiator) {
+		return CACHED_INSTANCES.get(clazz, instantiator.getCache(), () -> instantiate(instantiator));
+	}
+
+	/**
+	 * Retrieve the (cached) implementation for the parameter key suffix.
+	 *
+	 * @param suffixKey the parameter key suffix
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
+	 * @return the implementation details for the key suffix
+	 */
+	private static ImplClass getImplClass(final String suffixKey, final String paramKey) {
+		LoaderState state = getLoaderState();
+		Map<String, ImplClass> implClasses = state.getImplClasses();
+		ImplClass implClass = implClasses.get(suffixKey);
+		if (implClass != null) {
+			DidumsMetrics.recordCacheHit(IMPL_CACHE);
+			return implClass;
+		}
+		DidumsMetrics.recordCacheMiss(IMPL_CACHE);
+		// Read the version first so an entry resolved against a config reloaded after this point is not kept
+		int version = CONFIG_VERSION.get();
+		// Get the config instance as this checks the touchfile and reloads (and clears the cache) if required
+		Configuration config = Config.getInstance();
+		String[] classNames = getClassNames(config, suffixKey, paramKey);
+		if (classNames.length == 0) {
+			// Fallback to the registered implementation
+			implClass = new ImplClass(state.getRegistry().getImplementation(suffixKey));
+		} else {
+			implClass = new ImplClass(classNames);
+		}
+		implClasses.put(suffixKey, implClass);
+		// Config changed while resolving so do not keep the entry
+		if (version != CONFIG_VERSION.get()) {
+			implClasses.remove(suffixKey, implClass);
+		}
+		return implClass;
+	}
+
+	/**
+	 * Clear the cached implementations whose parameter key value changed in the current config.
+	 * <p>
+	 * The version is incremented first so a lookup that resolved against the previous config, and caches its entry
+	 * after the changed entries are cleared, does not keep its entry.
+	 * </p>
+	 */
+	private static void clearImplCache() {
+		CONFIG_VERSION.incrementAndGet();
+		Map<String, String[]> properties = getFactoryProperties(Config.getInstance());
+		List<LoaderState> states;
+		LOADER_STATES_LOCK.lock();
+		try {
+			states = new ArrayList<>(LOADER_STATES.values());
+		} finally {
+			LOADER_STATES_LOCK.unlock();
+		}
+		for (LoaderState state : states) {
+			clearChanged(state.getImplClasses(), ImplClass::getValues, properties);
+			clearChanged(state.getMultiImplClasses(), MultiImplClasses::getValues, properties);
+		}
+	}
+
+	/**
+	 * Remove the cache entries whose parameter key value changed.
+	 *
+	 * @param cache the cached entries keyed by parameter key suffix
+	 * @param values the parameter key values an entry was resolved from
+	 * @param properties the factory properties of the current config
+	 * @param <E> the cache entry type
+	 */
+	private static <E> void clearChanged(final Map<String, E> cache, final Function<E, String[]> values,
+			final Map<String, String[]> properties) {
+		for (Map.Entry<String, E> entry : cache.entrySet()) {
+			if (isChanged(values.apply(entry.getValue()), properties.get(entry.getKey()))) {
+				cache.remove(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * @param previous the parameter key value an entry was resolved from
+	 * @param current the parameter key value in the current config, or null if not defined
+	 * @return true if the parameter key value changed
+	 */
+	static boolean isChanged(final String[] previous, final String[] current) {
+		return !Arrays.equals(previous, current == null ? NO_VALUES : current);
+	}
+
+	/**
+	 * Retrieve the (cached) multiple implementation classes for the parameter key suffix.
 	 *
 	 * @param suffixKey the parameter key suffix
-	 * @return the implementing class name, or null if no implementation
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
+	 * @return the implementation classes, or an empty list
+	 */
+	private static List<Class<?>> getMultiImplClasses(final String suffixKey, final String paramKey) {
+		LoaderState state = getLoaderState();
+		Map<String, MultiImplClasses> multiImplClasses = state.getMultiImplClasses();
+		MultiImplClasses cached = multiImplClasses.get(suffixKey);
+		if (cached != null) {
+			DidumsMetrics.recordCacheHit(MULTI_IMPL_CACHE);
+			return cached.getClasses();
+		}
+		DidumsMetrics.recordCacheMiss(MULTI_IMPL_CACHE);
+		// Read the version first so an entry resolved against a config reloaded after this point is not kept
+		int version = CONFIG_VERSION.get();
+		// Get the config instance as this checks the touchfile and reloads (and clears the cache) if required
+		Configuration config = Config.getInstance();
+		String[] classNames = getClassNames(config, suffixKey, paramKey);
+		List<Class<?>> classes;
+		if (classNames.length == 0) {
+			// Fallback to the registered implementations
+			classes = state.getRegistry().getImplementations(suffixKey);
+		} else {
+			List<Class<?>> found = new ArrayList<>(classNames.length);
+			for (String className : classNames) {
+				found.add(findClass(className));
+			}
+			classes = Collections.unmodifiableList(found);
+		}
+		cached = new MultiImplClasses(classNames, classes);
+		multiImplClasses.put(suffixKey, cached);
+		// Config changed while resolving so do not keep the entry
+		if (version != CONFIG_VERSION.get()) {
+			multiImplClasses.remove(suffixKey, cached);
+		}
+		return classes;
+	}
+
+	/**
+	 * @return the state of the context class loader of the current thread
 	 */
-	private static String getImplClassName(final String suffixKey) {
-		String paramKey = getParamKey(suffixKey);
-		return Config.getInstance().getString(paramKey);
+	private static LoaderState getLoaderState() {
+		return getLoaderState(Thread.currentThread().getContextClassLoader());
 	}
 
 	/**
-	 * Retrieve multiple implementation class names for the parameter key suffix.
+	 * Retrieve the state of the class loader, loading its registry on first use.
 	 *
+	 * @param classLoader the class loader, or null for the class loader of the factory
+	 * @return the state of the class loader
+	 */
+	private static LoaderState getLoaderState(final ClassLoader classLoader) {
+		ClassLoader loader = classLoader == null ? Factory.class.getClassLoader() : classLoader;
+		LoaderState state = LAST_LOADER_STATE.get();
+		if (state != null && state.isFor(loader)) {
+			return state;
+		}
+		LOADER_STATES_LOCK.lock();
+		try {
+			state = LOADER_STATES.get(loader);
+			if (state == null) {
+				state = new LoaderState(loader);
+				LOADER_STATES.put(loader, state);
+			}
+		} finally {
+			LOADER_STATES_LOCK.unlock();
+		}
+		LAST_LOADER_STATE.set(state);
+		return state;
+	}
+
+	/**
+	 * Retrieve the implementation class names for the parameter key suffix.
+	 *
+	 * @param config the current config
 	 * @param suffixKey the parameter key suffix
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
 	 * @return the implementing class names, or an empty array
 	 */
-	private static String[] getMultiImplClassName(final String suffixKey) {
-		String paramKey = getParamKey(suffixKey);
-		return Config.getInstance().getStringArray(paramKey);
+	private static String[] getClassNames(final Configuration config, final String suffixKey, final String paramKey) {
+		return config.getStringArray(getParamKey(suffixKey, paramKey));
+	}
+
+	/**
+	 * Retrieve the value of each factory parameter key in the config.
+	 *
+	 * @param config the current config
+	 * @return the parameter key values by key suffix
+	 */
+	private static Map<String, String[]> getFactoryProperties(final Configuration config) {
+		Map<String, String[]> properties = new TreeMap<>();
+		String prefix = PREFIX.substring(0, PREFIX.length() - 1);
+		for (Iterator<String> keys = config.getKeys(prefix); keys.hasNext();) {
+			String key = keys.next();
+			if (key.startsWith(PREFIX)) {
+				properties.put(key.substring(PREFIX.length()), config.getStringArray(key));
+			}
+		}
+		return properties;
 	}
 
 	/**
-	 * Append the suffix key to the standard factory prefix.
+	 * Append the suffix key to the standard factory prefix, unless the full parameter key is already known.
 	 *
 	 * @param suffixKey the parameter key suffix
+	 * @param paramKey the full parameter key, or null to build it from the key suffix
 	 * @return the fully qualified parameter key
 	 */
-	private static String getParamKey(final String suffixKey) {
-		return PREFIX + suffixKey;
+	private static String getParamKey(final String suffixKey, final String paramKey) {
+		return paramKey == null ? PREFIX + suffixKey : paramKey;
 	}
 
 	/**
-	 * Build the contract suffix with qualifiers.
-	 *
-	 * @param contract the contract type
-	 * @param qualifiers the contract qualifiers
-	 * @return the contract parameter suffix
+	 * The implementation defined for a parameter key suffix.
+	 */
+	private static final class ImplClass {
+
+		private final String[] values;
+
+		private final String className;
+
+		/**
+		 * The implementation class, held weakly so it does not hold the class loader state.
+		 */
+		private final AtomicReference<WeakReference<Class<?>>> clazz = new AtomicReference<>();
+
+		/**
+		 * @param values the parameter key value, the first being the implementation class name
+		 */
+		private ImplClass(final String[] values) {
+			this.values = values;
+			this.className = values[0].trim();
+		}
+
+		/**
+		 * @param implClass the implementation class, or null if no implementation defined
+		 */
+		private ImplClass(final Class<?> implClass) {
+			this.values = NO_VALUES;
+			this.className = implClass == null ? null : implClass.getName();
+			if (implClass != null) {
+				this.clazz.set(new WeakReference<>(implClass));
+			}
+		}
+
+		/**
+		 * @return the parameter key value the implementation was resolved from
+		 */
+		private String[] getValues() {
+			return values;
+		}
+
+		/**
+		 * @return true if an implementation class has been defined
+		 */
+		private boolean isDefined() {
+			return className != null;
+		}
+
+		/**
+		 * @param <T> the contract type
+		 * @return the implementation class
+		 */
+		private <T> Class<T> getImplClass() {
+			WeakReference<Class<?>> ref = clazz.get();
+			Class<?> implClass = ref == null ? null : ref.get();
+			if (implClass == null) {
+				implClass = findClass(className);
+				clazz.set(new WeakReference<>(implClass));
+			}
+			return (Class<T>) implClass;
+		}
+	}
+
+	/**
+	 * The multiple implementations defined for a parameter key suffix.
+	 */
+	private static final class MultiImplClasses {
+
+		private final String[] values;
+
+		/**
+		 * The implementation classes, held weakly so they do not hold the class loader state.
+		 */
+		private final List<WeakReference<Class<?>>> classes;
+
+		/**
+		 * @param values the parameter key value the implementations were resolved from
+		 * @param classes the implementation classes
+		 */
+		private MultiImplClasses(final String[] values, final List<Class<?>> classes) {
+			this.values = values;
+			this.classes = weakClasses(classes);
+		}
+
+		/**
+		 * @return the parameter key value the implementations were resolved from
+		 */
+		private String[] getValues() {
+			return values;
+		}
+
+		/**
+		 * @return the implementation classes
+		 */
+		private List<Class<?>> getClasses() {
+			return strongClasses(classes);
+		}
+	}
+
+	/**
+	 * Creates instances of an implementation class.
+	 * <p>
+	 * Registered implementations use their registered creator and settings. Other implementations use their
+	 * no-argument constructor, which is looked up once and invoked via a {@link MethodHandle} to avoid the reflective
+	 * access checks of {@link Class#newInstance()} on every call, and the settings of their annotations.
+	 * </p>
+	 */
+	private static final class Instantiator {
+
+		private final boolean singleton;
+
+		private final PoolOptions pool;
+
+		private final CacheOptions cache;
+
+		private final Supplier<?> creator;
+
+		/**
+		 * @param singleton true if only one instance should be created
+		 * @param pool the pool settings or null if not pooled
+		 * @param cache the cache settings or null if not cached
+		 * @param creator creates a new instance of the implementation
+		 */
+		private Instantiator(final boolean singleton, final PoolOptions pool, final CacheOptions cache, final Supplier<?> creator) {
+			this.singleton = singleton;
+			this.pool = pool;
+			this.cache = cache;
+			this.creator = creator;
+		}
+
+		/**
+		 * @param clazz the implementation class
+		 * @param singleton true if only one instance should be created
+		 * @return an instantiator that calls the no-argument constructor of the class
+		 */
+		private static Instantiator forConstructor(final Class<?> clazz, final boolean singleton) {
+			final MethodHandle constructor;
+			try {
+				MethodHandle handle = MethodHandles.lookup().unreflectConstructor(clazz.getDeclaredConstructor());
+				constructor = handle.asType(MethodType.methodType(Object.class));
+			} catch (IllegalAccessException | NoSuchMethodException e) {
+				throw new FactoryException("Failed to instantiate object of class " + clazz.getName(), e);
+			}
+			return new Instantiator(singleton, PoolOptions.forClass(clazz), CacheOptions.forClass(clazz), () -> {
+				try {
+					return constructor.invokeExact();
+				} catch (RuntimeException | Error e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new FactoryException("Failed to instantiate object of class " + clazz.getName(), e);
+				}
+			});
+		}
+
+		/**
+		 * @return true if only one instance of the implementation should be created
+		 */
+		private boolean isSingleton() {
+			return singleton;
+		}
+
+		/**
+		 * @return the settings of the {@link Cached} annotation or null if the implementation is not cached
+		 */
+		private CacheOptions getCache() {
+			return cache;
+		}
+
+		/**
+		 * @return the settings of the {@link Pooled} annotation or null if the implementation is not pooled
+		 */
+		private PoolOptions getPool() {
+			return pool;
+		}
+
+		/**
+		 * @param <T> the implementation type
+		 * @return a new instance of the implementation class
+		 */
+		private <T> T newInstance() {
+			return (T) creator.get();
+		}
+	}
+
+	/**
+	 * The singleton instance of an implementation class. Also used as the lock to create the instance only once.
+	 */
+	private static final class SingletonHolder {
+
+		private final AtomicReference<Object> instance = new AtomicReference<>();
+
+		/**
+		 * @return the singleton instance or null if not created yet
+		 */
+		private Object getInstance() {
+			return instance.get();
+		}
+
+		/**
+		 * @param obj the singleton instance
+		 */
+		private void setInstance(final Object obj) {
+			instance.set(obj);
+		}
+	}
+
+	/**
+	 * @param classes the classes
+	 * @return weak references to the classes
+	 */
+	private static List<WeakReference<Class<?>>> weakClasses(final List<Class<?>> classes) {
+		List<WeakReference<Class<?>>> refs = new ArrayList<>(classes.size());
+		for (Class<?> clazz : classes) {
+			refs.add(new WeakReference<>(clazz));
+		}
+		return refs;
+	}
+
+	/**
+	 * @param refs weak references to the classes
+	 * @return the classes that have not been unloaded
+	 */
+	private static List<Class<?>> strongClasses(final List<WeakReference<Class<?>>> refs) {
+		List<Class<?>> classes = new ArrayList<>(refs.size());
+		for (WeakReference<Class<?>> ref : refs) {
+			Class<?> clazz = ref.get();
+			if (clazz != null) {
+				classes.add(clazz);
+			}
+		}
+		return Collections.unmodifiableList(classes);
+	}
+
+	/**
+	 * The resolved implementations and registry of a class loader.
+	 */
+	private static final class LoaderState {
+
+		private final WeakReference<ClassLoader> loader;
+
+		private final Map<String, ImplClass> implClasses = new ConcurrentHashMap<>();
+
+		private final Map<String, MultiImplClasses> multiImplClasses = new ConcurrentHashMap<>();
+
+		private final Registry registry;
+
+		/**
+		 * @param loader the class loader
+		 */
+		private LoaderState(final ClassLoader loader) {
+			this.loader = new WeakReference<>(loader);
+			this.registry = Registry.load(loader);
+		}
+
+		/**
+		 * @param classLoader the class loader to check
+		 * @return true if this is the state of the class loader
+		 */
+		private boolean isFor(final ClassLoader classLoader) {
+			return loader.get() == classLoader;
+		}
+
+		/**
+		 * @return the cache of the resolved implementation for a parameter key suffix
+		 */
+		private Map<String, ImplClass> getImplClasses() {
+			return implClasses;
+		}
+
+		/**
+		 * @return the cache of the resolved multiple implementations for a parameter key suffix
+		 */
+		private Map<String, MultiImplClasses> getMultiImplClasses() {
+			return multiImplClasses;
+		}
+
+		/**
+		 * @return the registered implementations of the class loader
+		 */
+		private Registry getRegistry() {
+			return registry;
+		}
+	}
+
+	/**
+	 * The implementations added by the {@link FactoryRegistry} services of a class loader. The classes are held weakly
+	 * and the creators against their class, so the registry does not hold its class loader.
 	 */
-	private static String getContractSuffixKey(final Class contract, final String... qualifiers) {
-		StringBuilder suffix = new StringBuilder(contract.getName());
-		for (String qualifier : qualifiers) {
-			if (!StringUtils.isEmpty(qualifier)) {
-				suffix.append(QUALIFIER_SEPERATOR).append(qualifier);
+	private static final class Registry implements FactoryRegistrar {
+
+		private final Map<String, List<WeakReference<Class<?>>>> implementations = new HashMap<>();
+
+		/**
+		 * @param loader the class loader to load the registry services from
+		 * @return the registry populated by the registry services
+		 */
+		private static Registry load(final ClassLoader loader) {
+			Registry registry = new Registry();
+			for (FactoryRegistry service : ServiceLoader.load(FactoryRegistry.class, loader)) {
+				service.register(registry);
 			}
+			return registry;
+		}
+
+		@Override
+		public <T> void addCreator(final Class<T> implClass, final boolean singleton, final PoolOptions pool, final CacheOptions cache,
+				final Supplier<? extends T> creator) {
+			REGISTERED.get(implClass).compareAndSet(null, new Instantiator(singleton, pool, cache, creator));
+		}
+
+		@Override
+		public <T> void addImplementation(final ContractKey<T> key, final Class<? extends T> implClass) {
+			implementations.computeIfAbsent(key.getKeySuffix(), k -> new ArrayList<>()).add(new WeakReference<>(implClass));
+		}
+
+		/**
+		 * @return the parameter key suffixes with registered implementations
+		 */
+		private Set<String> getKeySuffixes() {
+			return implementations.keySet();
+		}
+
+		/**
+		 * @param suffixKey the parameter key suffix
+		 * @return the first registered implementation or null if none registered
+		 */
+		private Class<?> getImplementation(final String suffixKey) {
+			List<Class<?>> impls = getImplementations(suffixKey);
+			return impls.isEmpty() ? null : impls.get(0);
+		}
+
+		/**
+		 * @param suffixKey the parameter key suffix
+		 * @return the registered implementations or an empty list
+		 */
+		private List<Class<?>> getImplementations(final String suffixKey) {
+			List<WeakReference<Class<?>>> impls = implementations.get(suffixKey);
+			return impls == null ? Collections.emptyList() : strongClasses(impls);
 		}
-		return suffix.toString();
 	}
 
 }
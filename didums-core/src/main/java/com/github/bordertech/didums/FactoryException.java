@@ -15,6 +15,7 @@ public class FactoryException extends RuntimeException {
 	 */
 	public FactoryException(final String msg) {
 		super(msg);
+		DidumsMetrics.recordFactoryException();
 	}
 
 	/**
@@ -25,6 +26,7 @@ public class FactoryException extends RuntimeException {
 	 */
 	public FactoryException(final String msg, final Throwable throwable) {
 		super(msg, throwable);
+		DidumsMetrics.recordFactoryException();
 	}
 
 	/**
@@ -34,5 +36,6 @@ public class FactoryException extends RuntimeException {
 	 */
 	public FactoryException(final Throwable throwable) {
 		super(throwable);
+		DidumsMetrics.recordFactoryException();
 	}
 }
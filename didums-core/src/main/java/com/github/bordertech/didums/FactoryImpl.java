@@ -0,0 +1,34 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class as the {@link Factory} implementation of one or more contracts.
+ * <p>
+ * The annotation is read at compile time by the <code>didums-processor</code> annotation processor, which generates a
+ * {@link FactoryRegistry} for the annotated classes. It has no effect if the processor is not used.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface FactoryImpl {
+
+	/**
+	 * @return the contracts this class implements
+	 */
+	Class<?>[] value();
+
+	/**
+	 * @return the contract qualifiers
+	 */
+	String[] qualifiers() default {};
+
+}
@@ -0,0 +1,49 @@
+package com.github.bordertech.didums;
+
+import java.util.function.Supplier;
+
+/**
+ * Passed to a {@link FactoryRegistry} to add its implementations.
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public interface FactoryRegistrar {
+
+	/**
+	 * Add the creator for an implementation class, used instead of its constructor being called via reflection. The
+	 * {@link Pooled} and {@link Cached} settings are read from the class annotations.
+	 *
+	 * @param <T> the implementation type
+	 * @param implClass the implementation class
+	 * @param singleton true if only one instance should be created
+	 * @param creator creates a new instance of the implementation
+	 */
+	default <T> void addCreator(final Class<T> implClass, final boolean singleton, final Supplier<? extends T> creator) {
+		addCreator(implClass, singleton, PoolOptions.forClass(implClass), CacheOptions.forClass(implClass), creator);
+	}
+
+	/**
+	 * Add the creator and settings for an implementation class, so neither its constructor nor its annotations are
+	 * read via reflection.
+	 *
+	 * @param <T> the implementation type
+	 * @param implClass the implementation class
+	 * @param singleton true if only one instance should be created
+	 * @param pool the {@link Pooled} settings or null if not pooled
+	 * @param cache the {@link Cached} settings or null if not cached
+	 * @param creator creates a new instance of the implementation
+	 */
+	<T> void addCreator(Class<T> implClass, boolean singleton, PoolOptions pool, CacheOptions cache, Supplier<? extends T> creator);
+
+	/**
+	 * Add an implementation of a contract. If more than one implementation is added for a contract key, the first is
+	 * used by <code>newInstance</code> and all are used by <code>newMultiInstances</code>.
+	 *
+	 * @param <T> the contract type
+	 * @param key the contract key
+	 * @param implClass the implementation class
+	 */
+	<T> void addImplementation(ContractKey<T> key, Class<? extends T> implClass);
+
+}
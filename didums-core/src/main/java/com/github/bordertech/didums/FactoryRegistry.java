@@ -0,0 +1,26 @@
+package com.github.bordertech.didums;
+
+/**
+ * Registers implementations with the {@link Factory} without reflection.
+ * <p>
+ * Registries are loaded once via {@link java.util.ServiceLoader}, so an implementation must be listed in
+ * <code>META-INF/services/com.github.bordertech.didums.FactoryRegistry</code>. Registries are usually generated by the
+ * <code>didums-processor</code> annotation processor from classes annotated with {@link FactoryImpl}.
+ * </p>
+ * <p>
+ * Implementations defined in {@link com.github.bordertech.config.Config} override the registered implementations.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public interface FactoryRegistry {
+
+	/**
+	 * Register the implementations.
+	 *
+	 * @param registrar the registrar to add the implementations to
+	 */
+	void register(FactoryRegistrar registrar);
+
+}
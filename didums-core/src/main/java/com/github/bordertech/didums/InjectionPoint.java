@@ -0,0 +1,182 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Qualifier;
+
+/**
+ * A contract and qualifiers injected into a constructor parameter or field.
+ * <p>
+ * Also finds the {@link Inject} constructor and fields of a class as defined by JSR330. Method injection is not
+ * supported.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+final class InjectionPoint {
+
+	private static final Annotation[] NO_QUALIFIERS = new Annotation[0];
+
+	private final Class<?> contract;
+
+	private final Annotation[] qualifiers;
+
+	private final boolean provider;
+
+	private final ServiceKey key;
+
+	/**
+	 * @param type the injection point type
+	 * @param genericType the injection point generic type
+	 * @param annotations the injection point annotations
+	 */
+	private InjectionPoint(final Class<?> type, final Type genericType, final Annotation[] annotations) {
+		this.provider = type == Provider.class;
+		if (provider) {
+			if (!(genericType instanceof ParameterizedType)) {
+				throw new FactoryException("Provider injection point must have a type argument.");
+			}
+			Type arg = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+			if (arg instanceof ParameterizedType) {
+				arg = ((ParameterizedType) arg).getRawType();
+			}
+			if (!(arg instanceof Class)) {
+				throw new FactoryException("Provider injection point type argument [" + arg + "] must be a class.");
+			}
+			this.contract = (Class<?>) arg;
+		} else {
+			this.contract = type;
+		}
+		List<Annotation> found = new ArrayList<>();
+		for (Annotation annotation : annotations) {
+			if (annotation.annotationType().isAnnotationPresent(Qualifier.class)) {
+				found.add(annotation);
+			}
+		}
+		this.qualifiers = found.isEmpty() ? NO_QUALIFIERS : found.toArray(new Annotation[found.size()]);
+		this.key = ServiceKey.of(contract, qualifiers);
+	}
+
+	/**
+	 * @param constructor the constructor
+	 * @return the injection points of the constructor parameters
+	 */
+	static InjectionPoint[] forConstructor(final Constructor<?> constructor) {
+		InjectionPoint[] parameters = new InjectionPoint[constructor.getParameterCount()];
+		for (int i = 0; i < parameters.length; i++) {
+			parameters[i] = new InjectionPoint(constructor.getParameterTypes()[i], constructor.getGenericParameterTypes()[i],
+					constructor.getParameterAnnotations()[i]);
+		}
+		return parameters;
+	}
+
+	/**
+	 * @param field the field
+	 * @return the injection point of the field
+	 */
+	static InjectionPoint forField(final Field field) {
+		return new InjectionPoint(field.getType(), field.getGenericType(), field.getAnnotations());
+	}
+
+	/**
+	 * @param type the class to create
+	 * @return the injection points of the constructor parameters and fields
+	 */
+	static List<InjectionPoint> forClass(final Class<?> type) {
+		List<InjectionPoint> points = new ArrayList<>(Arrays.asList(forConstructor(getConstructor(type))));
+		for (Field field : getFields(type)) {
+			points.add(forField(field));
+		}
+		return points;
+	}
+
+	/**
+	 * @param type the class to create
+	 * @return the constructor annotated with {@link Inject}, otherwise the no-argument constructor
+	 */
+	static Constructor<?> getConstructor(final Class<?> type) {
+		Constructor<?> inject = null;
+		for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+			if (constructor.isAnnotationPresent(Inject.class)) {
+				if (inject != null) {
+					throw new FactoryException("Class [" + type.getName() + "] has more than one @Inject constructor.");
+				}
+				inject = constructor;
+			}
+		}
+		if (inject != null) {
+			return inject;
+		}
+		try {
+			return type.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new FactoryException("Class [" + type.getName() + "] has no @Inject or no-argument constructor.", e);
+		}
+	}
+
+	/**
+	 * @param type the class to create
+	 * @return the fields annotated with {@link Inject}, super class fields first
+	 */
+	static List<Field> getFields(final Class<?> type) {
+		List<Field> fields = new ArrayList<>();
+		for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			List<Field> declared = new ArrayList<>();
+			for (Field field : clazz.getDeclaredFields()) {
+				if (!field.isAnnotationPresent(Inject.class) || Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				if (Modifier.isFinal(field.getModifiers())) {
+					throw new FactoryException("Field [" + field.getName() + "] of [" + clazz.getName() + "] cannot be injected as it is final.");
+				}
+				declared.add(field);
+			}
+			fields.addAll(0, declared);
+		}
+		return fields;
+	}
+
+	/**
+	 * @return the contract to inject
+	 */
+	Class<?> getContract() {
+		return contract;
+	}
+
+	/**
+	 * @return the qualifiers of the contract
+	 */
+	Annotation[] getQualifiers() {
+		return qualifiers.length == 0 ? qualifiers : qualifiers.clone();
+	}
+
+	/**
+	 * @return the key of the contract and qualifiers
+	 */
+	ServiceKey getKey() {
+		return key;
+	}
+
+	/**
+	 * @return true if a {@link Provider} of the contract is injected
+	 */
+	boolean isProvider() {
+		return provider;
+	}
+
+	@Override
+	public String toString() {
+		return "[" + contract.getName() + "]" + (qualifiers.length == 0 ? "" : " qualified by " + Arrays.toString(qualifiers));
+	}
+
+}
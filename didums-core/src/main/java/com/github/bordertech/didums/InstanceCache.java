@@ -0,0 +1,387 @@
+package com.github.bordertech.didums;
+
+import com.github.bordertech.config.Config;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the instances of cached services.
+ * <p>
+ * An instance is kept until its time to live has passed, or a soft cached instance until the garbage collector
+ * releases it, and a new instance is created on the next request. Retrieving a cached instance does not lock. Creating
+ * an instance only locks on its key, so a burst of requests creates one instance.
+ * </p>
+ * <p>
+ * Expired and released instances are removed when a new instance is created. If the cache is then larger than its
+ * maximum size, the least recently used instances are evicted. An instance that is still being created is not evicted,
+ * and if its creator fails its key is removed. The maximum size defaults to the following property, which is read each
+ * time instances are removed so a config reload is picked up:
+ * </p>
+ * <pre>
+ * bordertech.didums.cached.maxSize=64
+ * </pre>
+ * <p>
+ * Hits and misses are recorded in the {@link DidumsMetrics} cache counts and all removals in the eviction counts under
+ * the cache name. The cache also keeps its own counts.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @see Cached
+ * @see CacheOptions
+ * @since 1.0.6
+ */
+public final class InstanceCache {
+
+	/**
+	 * Parameter key of the default maximum number of cached instances.
+	 */
+	public static final String MAX_SIZE_PARAM = "bordertech.didums.cached.maxSize";
+
+	/**
+	 * The maximum size if not defined in the config.
+	 */
+	private static final int DEFAULT_MAX_SIZE = 64;
+
+	private final String name;
+
+	private final IntSupplier maxSize;
+
+	private final Map<Object, Slot> slots = new ConcurrentHashMap<>();
+
+	/**
+	 * Lock so only one thread removes instances at a time.
+	 */
+	private final ReentrantLock evictLock = new ReentrantLock();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder expired = new LongAdder();
+
+	private final LongAdder collected = new LongAdder();
+
+	private final LongAdder evicted = new LongAdder();
+
+	/**
+	 * Create a cache with the default maximum size.
+	 *
+	 * @param name the cache name used for the metrics
+	 */
+	public InstanceCache(final String name) {
+		this.name = name;
+		this.maxSize = () -> Math.max(1, Config.getInstance().getInt(MAX_SIZE_PARAM, DEFAULT_MAX_SIZE));
+	}
+
+	/**
+	 * @param name the cache name used for the metrics
+	 * @param maxSize the maximum number of cached instances
+	 */
+	public InstanceCache(final String name, final int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be at least one.");
+		}
+		this.name = name;
+		this.maxSize = () -> maxSize;
+	}
+
+	/**
+	 * Retrieve the cached instance for the key, or create and cache a new instance if none cached.
+	 *
+	 * @param <T> the instance type
+	 * @param key the cache key
+	 * @param options the cache settings of the instance
+	 * @param creator creates a new instance
+	 * @return the cached or new instance
+	 */
+	public <T> T get(final Object key, final CacheOptions options, final Supplier<? extends T> creator) {
+		long now = System.nanoTime();
+		Slot slot = slots.computeIfAbsent(key, k -> new Slot(now));
+		slot.touch(now);
+		T obj = (T) slot.getInstance(now);
+		if (obj != null) {
+			hits.increment();
+			DidumsMetrics.recordCacheHit(name);
+			return obj;
+		}
+		synchronized (slot) {
+			// Slot was removed while waiting, so retry with the current slot of the key
+			if (slots.get(key) != slot) {
+				return get(key, options, creator);
+			}
+			obj = (T) slot.getInstance(now);
+			if (obj == null) {
+				misses.increment();
+				DidumsMetrics.recordCacheMiss(name);
+				obj = createInstance(key, slot, creator);
+				slot.setInstance(obj, options, System.nanoTime());
+			}
+		}
+		evict(System.nanoTime());
+		return obj;
+	}
+
+	/**
+	 * Remove all the cached instances.
+	 */
+	public void clear() {
+		evictLock.lock();
+		try {
+			for (Map.Entry<Object, Slot> entry : slots.entrySet()) {
+				if (slots.remove(entry.getKey(), entry.getValue())) {
+					countEviction(evicted);
+				}
+			}
+		} finally {
+			evictLock.unlock();
+		}
+	}
+
+	/**
+	 * @return the cache name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the maximum number of cached instances
+	 */
+	public int getMaxSize() {
+		return maxSize.getAsInt();
+	}
+
+	/**
+	 * @return the number of cached instances, including instances not yet removed
+	 */
+	public int getSize() {
+		return slots.size();
+	}
+
+	/**
+	 * @return the number of requests that used a cached instance
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of requests that created a new instance
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of instances removed as their time to live had passed
+	 */
+	public long getExpiredCount() {
+		return expired.sum();
+	}
+
+	/**
+	 * @return the number of soft cached instances released by the garbage collector
+	 */
+	public long getCollectedCount() {
+		return collected.sum();
+	}
+
+	/**
+	 * @return the number of instances evicted as the cache was full or cleared
+	 */
+	public long getEvictedCount() {
+		return evicted.sum();
+	}
+
+	/**
+	 * Create a new instance, removing the slot if the creator fails so the key does not take up space.
+	 *
+	 * @param <T> the instance type
+	 * @param key the cache key
+	 * @param slot the slot of the key
+	 * @param creator creates a new instance
+	 * @return the new instance
+	 */
+	private <T> T createInstance(final Object key, final Slot slot, final Supplier<? extends T> creator) {
+		try {
+			return creator.get();
+		} catch (RuntimeException | Error e) {
+			slots.remove(key, slot);
+			throw e;
+		}
+	}
+
+	/**
+	 * Remove the expired and released instances and then the least recently used instances over the maximum size.
+	 *
+	 * @param now the current time in nanoseconds
+	 */
+	private void evict(final long now) {
+		// Another thread is already removing instances
+		if (!evictLock.tryLock()) {
+			return;
+		}
+		try {
+			for (Map.Entry<Object, Slot> entry : slots.entrySet()) {
+				LongAdder reason = entry.getValue().getRemovalReason(now);
+				if (reason != null && slots.remove(entry.getKey(), entry.getValue())) {
+					countEviction(reason);
+				}
+			}
+			int max = maxSize.getAsInt();
+			while (slots.size() > max) {
+				// Only evict slots holding an instance, as the instance of an empty slot is being created
+				Map.Entry<Object, Slot> eldest = null;
+				for (Map.Entry<Object, Slot> entry : slots.entrySet()) {
+					if (entry.getValue().hasInstance()
+							&& (eldest == null || entry.getValue().getLastAccess() - eldest.getValue().getLastAccess() < 0)) {
+						eldest = entry;
+					}
+				}
+				if (eldest == null) {
+					return;
+				}
+				if (slots.remove(eldest.getKey(), eldest.getValue())) {
+					countEviction(evicted);
+				}
+			}
+		} finally {
+			evictLock.unlock();
+		}
+	}
+
+	/**
+	 * @param reason the counter of the removal reason
+	 */
+	private void countEviction(final LongAdder reason) {
+		reason.increment();
+		DidumsMetrics.recordCacheEviction(name);
+	}
+
+	/**
+	 * The cached instance of a key and when it was last used.
+	 */
+	private final class Slot {
+
+		private final AtomicReference<CachedInstance> instance = new AtomicReference<>();
+
+		private final AtomicLong lastAccess;
+
+		/**
+		 * @param now the current time in nanoseconds, so a new slot is not the least recently used
+		 */
+		private Slot(final long now) {
+			this.lastAccess = new AtomicLong(now);
+		}
+
+		/**
+		 * @param now the current time in nanoseconds
+		 */
+		private void touch(final long now) {
+			lastAccess.lazySet(now);
+		}
+
+		/**
+		 * @return the time in nanoseconds the slot was last used
+		 */
+		private long getLastAccess() {
+			return lastAccess.get();
+		}
+
+		/**
+		 * @return true if an instance has been created for the slot
+		 */
+		private boolean hasInstance() {
+			return instance.get() != null;
+		}
+
+		/**
+		 * @param now the current time in nanoseconds
+		 * @return the cached instance or null if none cached, expired or released
+		 */
+		private Object getInstance(final long now) {
+			CachedInstance cached = instance.get();
+			if (cached == null || cached.isExpired(now)) {
+				return null;
+			}
+			return cached.getInstance();
+		}
+
+		/**
+		 * @param obj the new instance
+		 * @param options the cache settings of the instance
+		 * @param now the current time in nanoseconds
+		 */
+		private void setInstance(final Object obj, final CacheOptions options, final long now) {
+			CachedInstance previous = instance.getAndSet(new CachedInstance(obj, options, now));
+			if (previous != null) {
+				countEviction(previous.isExpired(now) ? expired : collected);
+			}
+		}
+
+		/**
+		 * @param now the current time in nanoseconds
+		 * @return the counter of the reason the slot should be removed, or null if it should be kept
+		 */
+		private LongAdder getRemovalReason(final long now) {
+			CachedInstance cached = instance.get();
+			if (cached == null) {
+				return null;
+			}
+			if (cached.isExpired(now)) {
+				return expired;
+			}
+			return cached.getInstance() == null ? collected : null;
+		}
+	}
+
+	/**
+	 * A cached instance, held strongly or via a soft reference, and when it expires.
+	 */
+	private static final class CachedInstance {
+
+		private final Object strong;
+
+		private final SoftReference<Object> soft;
+
+		private final long expires;
+
+		private final boolean expiring;
+
+		/**
+		 * @param obj the instance
+		 * @param options the cache settings of the instance
+		 * @param created the time in nanoseconds the instance was created
+		 */
+		private CachedInstance(final Object obj, final CacheOptions options, final long created) {
+			this.strong = options.isSoft() ? null : obj;
+			this.soft = options.isSoft() ? new SoftReference<>(obj) : null;
+			this.expiring = options.getTtlMillis() > 0;
+			this.expires = created + TimeUnit.MILLISECONDS.toNanos(options.getTtlMillis());
+		}
+
+		/**
+		 * @return the instance or null if released by the garbage collector
+		 */
+		private Object getInstance() {
+			return soft == null ? strong : soft.get();
+		}
+
+		/**
+		 * @param now the current time in nanoseconds
+		 * @return true if the time to live has passed
+		 */
+		private boolean isExpired(final long now) {
+			return expiring && now - expires >= 0;
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.github.bordertech.didums;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool of idle instances of a {@link Pooled} implementation.
+ * <p>
+ * Returned instances are kept up to the maximum idle size and the rest are discarded. The most recently returned
+ * instance is borrowed first. Borrowing never blocks and creates a new instance if none are idle. Instances idle longer
+ * than the timeout are evicted when the pool is next used.
+ * </p>
+ * <p>
+ * Instances are not cached per thread. All threads borrow from and return to the one lock-free deque, so threads that
+ * borrow at a high rate still contend on its head.
+ * </p>
+ * <p>
+ * The pool does not limit the number of instances borrowed at once. Only the idle instances are bounded, so at most the
+ * maximum idle size plus the instances currently borrowed are held.
+ * </p>
+ *
+ * @param <T> the instance type
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+final class InstancePool<T> {
+
+	private final Supplier<? extends T> creator;
+
+	private final int maxIdle;
+
+	private final long idleTimeoutNanos;
+
+	/**
+	 * Idle instances with the most recently returned first.
+	 */
+	private final Deque<IdleInstance<T>> idle = new ConcurrentLinkedDeque<>();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	/**
+	 * @param options the pool settings
+	 * @param creator creates a new instance
+	 */
+	InstancePool(final PoolOptions options, final Supplier<? extends T> creator) {
+		this(options.getMaxIdle(), options.getIdleTimeoutMillis(), creator);
+	}
+
+	/**
+	 * @param maxIdle the maximum number of idle instances
+	 * @param idleTimeoutMillis the time in milliseconds an instance can be idle before it is evicted
+	 * @param creator creates a new instance
+	 */
+	InstancePool(final int maxIdle, final long idleTimeoutMillis, final Supplier<? extends T> creator) {
+		this.creator = creator;
+		this.maxIdle = maxIdle;
+		this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+	}
+
+	/**
+	 * @return an idle or new instance
+	 */
+	PooledInstance<T> borrow() {
+		return new PooledInstance<>(this::release, take());
+	}
+
+	/**
+	 * @param instance an instance created outside the pool to be returned to the pool when closed
+	 * @return the borrowed instance
+	 */
+	PooledInstance<T> lend(final T instance) {
+		return new PooledInstance<>(this::release, instance);
+	}
+
+	/**
+	 * @param instance the instance to return to the pool
+	 */
+	void release(final T instance) {
+		IdleInstance<T> entry = new IdleInstance<>(instance, System.nanoTime());
+		if (idleCount.incrementAndGet() <= maxIdle) {
+			idle.offerFirst(entry);
+		} else {
+			idleCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the number of idle instances
+	 */
+	int getIdleCount() {
+		return idleCount.get();
+	}
+
+	/**
+	 * @return an idle instance or a new instance if none idle
+	 */
+	private T take() {
+		long now = System.nanoTime();
+		evict(now);
+		IdleInstance<T> entry = idle.pollFirst();
+		while (entry != null) {
+			idleCount.decrementAndGet();
+			if (!isExpired(entry, now)) {
+				return entry.instance;
+			}
+			entry = idle.pollFirst();
+		}
+		return creator.get();
+	}
+
+	/**
+	 * Remove the expired instances from the end of the pool.
+	 *
+	 * @param now the current time in nanoseconds
+	 */
+	private void evict(final long now) {
+		IdleInstance<T> oldest = idle.peekLast();
+		while (oldest != null && isExpired(oldest, now) && idle.removeLastOccurrence(oldest)) {
+			idleCount.decrementAndGet();
+			oldest = idle.peekLast();
+		}
+	}
+
+	/**
+	 * @param entry the idle instance
+	 * @param now the current time in nanoseconds
+	 * @return true if the instance has been idle longer than the timeout
+	 */
+	private boolean isExpired(final IdleInstance<T> entry, final long now) {
+		return now - entry.returned > idleTimeoutNanos;
+	}
+
+	/**
+	 * An idle instance and when it was returned.
+	 *
+	 * @param <T> the instance type
+	 */
+	private static final class IdleInstance<T> {
+
+		private final T instance;
+
+		private final long returned;
+
+		/**
+		 * @param instance the idle instance
+		 * @param returned the time returned in nanoseconds
+		 */
+		private IdleInstance(final T instance, final long returned) {
+			this.instance = instance;
+			this.returned = returned;
+		}
+	}
+
+}
@@ -0,0 +1,406 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * Lightweight provider with no dependencies on a DI framework.
+ * <p>
+ * Supports {@link Inject} constructor and field injection (including {@link Provider} injection points), qualifiers,
+ * {@link Singleton} bindings and cached bindings. Method injection and other scopes are not supported.
+ * </p>
+ * <p>
+ * Each contract and qualifiers is given an id when first bound and the bindings are held in an array indexed by the id,
+ * so a lookup does not search or lock. The id is held on the key of the contract, which injection points resolve once,
+ * and looking up a contract that has not been bound does not allocate an id. The constructor and fields to inject are
+ * resolved once per class and invoked via cached method handles.
+ * </p>
+ * <p>
+ * Bindings are checked for dependency cycles when added and a {@link FactoryException} is thrown if a cycle is found.
+ * Only the dependencies of the added bindings are followed, as a new cycle must pass through an added binding.
+ * Dependencies are not created just in time so every dependency must be bound before it is injected. Binding a
+ * contract and qualifiers again replaces the previous binding.
+ * </p>
+ * <p>
+ * To use this provider set the factory property:
+ * </p>
+ * <pre>
+ * bordertech.factory.impl.com.github.bordertech.didums.DidumsProvider=com.github.bordertech.didums.NativeDidumsProvider
+ * </pre>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public class NativeDidumsProvider implements DidumsProvider {
+
+	/**
+	 * Injection plan for each class. Held against the class so it is released if the class is unloaded.
+	 */
+	private static final ClassValue<InjectionPlan> PLANS = new ClassValue<InjectionPlan>() {
+		@Override
+		protected InjectionPlan computeValue(final Class<?> type) {
+			return InjectionPlan.forClass(type);
+		}
+	};
+
+	/**
+	 * Bindings indexed by contract id. Replaced, not modified, when bindings are added.
+	 */
+	private final AtomicReference<BoundService[]> bindings = new AtomicReference<>(new BoundService[0]);
+
+	/**
+	 * Lock so concurrent binds each add to the latest bindings.
+	 */
+	private final ReentrantLock bindLock = new ReentrantLock();
+
+	/**
+	 * Instances of the cached bindings.
+	 */
+	private final InstanceCache cachedInstances = new InstanceCache("native.cached");
+
+	@Override
+	public <T> T getService(final Class<T> contract, final Annotation... qualifiers) {
+		BoundService bound = getBinding(bindings.get(), ServiceKey.of(contract, qualifiers));
+		return bound == null ? null : (T) bound.get(this);
+	}
+
+	@Override
+	public <T> T createAndInject(final Class<T> createMe) {
+		return (T) PLANS.get(createMe).newInstance(this);
+	}
+
+	@Override
+	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers) {
+		bindAll(Collections.singletonList(new Binding<>(contract, contractImpl, singleton, qualifiers)));
+	}
+
+	@Override
+	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final CacheOptions cache, final Annotation... qualifiers) {
+		bindAll(Collections.singletonList(new Binding<>(contract, contractImpl, cache, qualifiers)));
+	}
+
+	/**
+	 * @return the cache of the cached binding instances, so its size and eviction counts can be checked
+	 */
+	public final InstanceCache getCachedInstances() {
+		return cachedInstances;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The bindings are checked for dependency cycles and added together. If a cycle is found none of the bindings are
+	 * added.
+	 * </p>
+	 */
+	@Override
+	public void bindAll(final Collection<? extends Binding<?>> bindings) {
+		if (bindings.isEmpty()) {
+			return;
+		}
+		bindLock.lock();
+		try {
+			List<Integer> ids = new ArrayList<>(bindings.size());
+			int size = this.bindings.get().length;
+			for (Binding<?> binding : bindings) {
+				int id = ServiceKey.of(binding.getContract(), binding.getQualifiers()).bindId();
+				ids.add(id);
+				size = Math.max(size, id + 1);
+			}
+			BoundService[] table = Arrays.copyOf(this.bindings.get(), size);
+			List<BoundService> added = new ArrayList<>(bindings.size());
+			int idx = 0;
+			for (Binding<?> binding : bindings) {
+				BoundService bound = new BoundService(binding, PLANS.get(binding.getContractImpl()));
+				table[ids.get(idx++)] = bound;
+				added.add(bound);
+			}
+			checkCycles(table, added);
+			this.bindings.set(table);
+		} finally {
+			bindLock.unlock();
+		}
+	}
+
+	@Override
+	public List<Binding<?>> getBindings() {
+		List<Binding<?>> bound = new ArrayList<>();
+		for (BoundService service : bindings.get()) {
+			if (service != null) {
+				bound.add(service.getBinding());
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * @param table the bindings indexed by contract id
+	 * @param key the key of the service contract and qualifiers
+	 * @return the binding or null if not bound
+	 */
+	private static BoundService getBinding(final BoundService[] table, final ServiceKey key) {
+		int id = key.getId();
+		return id < 0 || id >= table.length ? null : table[id];
+	}
+
+	/**
+	 * Resolve the value to inject for a dependency.
+	 *
+	 * @param dependency the dependency to resolve
+	 * @param requiredBy the class being injected
+	 * @return the value to inject
+	 */
+	private Object resolve(final InjectionPoint dependency, final Class<?> requiredBy) {
+		if (dependency.isProvider()) {
+			return (Provider<Object>) () -> resolveService(dependency, requiredBy);
+		}
+		return resolveService(dependency, requiredBy);
+	}
+
+	/**
+	 * @param dependency the dependency to resolve
+	 * @param requiredBy the class being injected
+	 * @return the bound service for the dependency
+	 */
+	private Object resolveService(final InjectionPoint dependency, final Class<?> requiredBy) {
+		BoundService bound = getBinding(bindings.get(), dependency.getKey());
+		if (bound == null) {
+			throw new FactoryException("No binding for " + dependency + " required by [" + requiredBy.getName() + "].");
+		}
+		return bound.get(this);
+	}
+
+	/**
+	 * Check the added bindings do not form a dependency cycle. {@link Provider} injection points are not followed as
+	 * they are resolved on use.
+	 *
+	 * @param table the bindings indexed by contract id
+	 * @param added the added bindings
+	 */
+	private void checkCycles(final BoundService[] table, final List<BoundService> added) {
+		Set<BoundService> checked = new HashSet<>();
+		for (BoundService bound : added) {
+			checkCycles(table, bound, new ArrayDeque<>(), checked);
+		}
+	}
+
+	/**
+	 * @param table the bindings indexed by contract id
+	 * @param bound the binding to check
+	 * @param path the bindings on the current dependency path
+	 * @param checked the bindings already checked
+	 */
+	private void checkCycles(final BoundService[] table, final BoundService bound, final Deque<BoundService> path,
+			final Set<BoundService> checked) {
+		if (path.contains(bound)) {
+			String cycle = path.stream()
+					.map(service -> service.getPlan().getType().getName())
+					.collect(Collectors.joining(" -> ", "", " -> " + bound.getPlan().getType().getName()));
+			throw new FactoryException("Dependency cycle found [" + cycle + "].");
+		}
+		if (checked.contains(bound)) {
+			return;
+		}
+		path.addLast(bound);
+		for (InjectionPoint dependency : bound.getPlan().getDependencies()) {
+			BoundService target = dependency.isProvider() ? null : getBinding(table, dependency.getKey());
+			if (target != null) {
+				checkCycles(table, target, path, checked);
+			}
+		}
+		path.removeLast();
+		checked.add(bound);
+	}
+
+	/**
+	 * An implementation bound to a contract and qualifiers.
+	 */
+	private static final class BoundService {
+
+		private final Binding<?> binding;
+
+		private final InjectionPlan plan;
+
+		private final boolean singleton;
+
+		private final AtomicReference<Object> instance = new AtomicReference<>();
+
+		private final Object lock = new Object();
+
+		/**
+		 * @param binding the binding
+		 * @param plan the injection plan of the implementation
+		 */
+		private BoundService(final Binding<?> binding, final InjectionPlan plan) {
+			this.binding = binding;
+			this.plan = plan;
+			this.singleton = binding.isSingleton();
+		}
+
+		/**
+		 * @return the binding
+		 */
+		private Binding<?> getBinding() {
+			return binding;
+		}
+
+		/**
+		 * @return the injection plan of the implementation
+		 */
+		private InjectionPlan getPlan() {
+			return plan;
+		}
+
+		/**
+		 * @param provider the provider resolving the dependencies
+		 * @return the singleton instance, the cached instance or a new instance
+		 */
+		private Object get(final NativeDidumsProvider provider) {
+			if (binding.getCache() != null) {
+				return provider.getCachedInstances().get(this, binding.getCache(), () -> plan.newInstance(provider));
+			}
+			if (!singleton) {
+				return plan.newInstance(provider);
+			}
+			Object obj = instance.get();
+			if (obj == null) {
+				synchronized (lock) {
+					obj = instance.get();
+					if (obj == null) {
+						obj = plan.newInstance(provider);
+						instance.set(obj);
+					}
+				}
+			}
+			return obj;
+		}
+	}
+
+	/**
+	 * The constructor and fields to inject for a class.
+	 */
+	private static final class InjectionPlan {
+
+		private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+		private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+		private final Class<?> type;
+
+		private final MethodHandle constructor;
+
+		private final InjectionPoint[] parameters;
+
+		private final MethodHandle[] setters;
+
+		private final InjectionPoint[] fields;
+
+		/**
+		 * @param type the class to create
+		 * @param constructor the constructor taking the parameters as an array
+		 * @param parameters the constructor parameters
+		 * @param setters the setters of the fields to inject
+		 * @param fields the fields to inject
+		 */
+		private InjectionPlan(final Class<?> type, final MethodHandle constructor, final InjectionPoint[] parameters,
+				final MethodHandle[] setters, final InjectionPoint[] fields) {
+			this.type = type;
+			this.constructor = constructor;
+			this.parameters = parameters;
+			this.setters = setters;
+			this.fields = fields;
+		}
+
+		/**
+		 * @param type the class to create
+		 * @return the injection plan for the class
+		 */
+		private static InjectionPlan forClass(final Class<?> type) {
+			if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+				throw new FactoryException("Cannot inject [" + type.getName() + "] as it is not a concrete class.");
+			}
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			try {
+				Constructor<?> inject = InjectionPoint.getConstructor(type);
+				if (!Modifier.isPublic(type.getModifiers()) || !Modifier.isPublic(inject.getModifiers())) {
+					inject.setAccessible(true);
+				}
+				InjectionPoint[] parameters = InjectionPoint.forConstructor(inject);
+				MethodHandle constructor = lookup.unreflectConstructor(inject)
+						.asSpreader(Object[].class, parameters.length)
+						.asType(CONSTRUCTOR_TYPE);
+				List<Field> injectFields = InjectionPoint.getFields(type);
+				MethodHandle[] setters = new MethodHandle[injectFields.size()];
+				InjectionPoint[] fields = new InjectionPoint[setters.length];
+				for (int i = 0; i < setters.length; i++) {
+					Field field = injectFields.get(i);
+					field.setAccessible(true);
+					setters[i] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+					fields[i] = InjectionPoint.forField(field);
+				}
+				return new InjectionPlan(type, constructor, parameters, setters, fields);
+			} catch (IllegalAccessException | SecurityException e) {
+				throw new FactoryException("Failed to create injection plan for class " + type.getName(), e);
+			}
+		}
+
+		/**
+		 * @return the class to create
+		 */
+		private Class<?> getType() {
+			return type;
+		}
+
+		/**
+		 * @return the constructor parameters and fields to inject
+		 */
+		private List<InjectionPoint> getDependencies() {
+			List<InjectionPoint> dependencies = new ArrayList<>(Arrays.asList(parameters));
+			dependencies.addAll(Arrays.asList(fields));
+			return dependencies;
+		}
+
+		/**
+		 * @param provider the provider resolving the dependencies
+		 * @return a new instance with its dependencies injected
+		 */
+		private Object newInstance(final NativeDidumsProvider provider) {
+			Object[] args = new Object[parameters.length];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = provider.resolve(parameters[i], type);
+			}
+			try {
+				Object obj = (Object) constructor.invokeExact(args);
+				for (int i = 0; i < setters.length; i++) {
+					setters[i].invokeExact(obj, provider.resolve(fields[i], type));
+				}
+				return obj;
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new FactoryException("Failed to instantiate object of class " + type.getName(), e);
+			}
+		}
+	}
+
+}
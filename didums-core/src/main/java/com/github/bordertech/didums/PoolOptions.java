@@ -0,0 +1,70 @@
+package com.github.bordertech.didums;
+
+/**
+ * The settings of a pooled implementation, being how many idle instances are kept and for how long.
+ * <p>
+ * Read from the {@link Pooled} annotation of an implementation, or registered with the creator of the implementation
+ * via {@link FactoryRegistrar} so the annotation is not read via reflection.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @see InstancePool
+ * @since 1.0.6
+ */
+public final class PoolOptions {
+
+	private final int maxIdle;
+
+	private final long idleTimeoutMillis;
+
+	/**
+	 * @param maxIdle the maximum number of idle instances kept
+	 * @param idleTimeoutMillis the time in milliseconds an instance can be idle before it is evicted
+	 */
+	public PoolOptions(final int maxIdle, final long idleTimeoutMillis) {
+		if (maxIdle < 0) {
+			throw new IllegalArgumentException("Maximum idle instances cannot be negative.");
+		}
+		if (idleTimeoutMillis < 0) {
+			throw new IllegalArgumentException("Idle timeout cannot be negative.");
+		}
+		this.maxIdle = maxIdle;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+	}
+
+	/**
+	 * @param pooled the pooled annotation
+	 */
+	private PoolOptions(final Pooled pooled) {
+		this(pooled.maxIdle(), pooled.idleTimeoutMillis());
+	}
+
+	/**
+	 * @param clazz the implementation class
+	 * @return the options of the {@link Pooled} annotation or null if the class is not pooled
+	 */
+	static PoolOptions forClass(final Class<?> clazz) {
+		Pooled pooled = clazz.getAnnotation(Pooled.class);
+		return pooled == null ? null : new PoolOptions(pooled);
+	}
+
+	/**
+	 * @return the maximum number of idle instances kept
+	 */
+	public int getMaxIdle() {
+		return maxIdle;
+	}
+
+	/**
+	 * @return the time in milliseconds an instance can be idle before it is evicted
+	 */
+	public long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "max idle " + maxIdle + ", idle timeout " + idleTimeoutMillis + "ms";
+	}
+
+}
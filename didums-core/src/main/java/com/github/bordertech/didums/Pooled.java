@@ -0,0 +1,42 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an implementation as pooled, for classes that are expensive to create and not thread-safe.
+ * <p>
+ * Instances of a pooled class are reused when borrowed via {@link Factory#borrow(Class, String...)} or
+ * {@link Didums#borrow(Class, java.lang.annotation.Annotation...)} and returned by closing the
+ * {@link PooledInstance}. <code>newInstance</code> and <code>getService</code> always create a new instance.
+ * </p>
+ * <p>
+ * Borrowing never blocks, so the number of instances borrowed at once is not limited. Only the idle instances are
+ * bounded by {@link #maxIdle()}. Idle instances are shared between threads and not cached per thread.
+ * </p>
+ * <p>
+ * The {@link javax.inject.Singleton} annotation takes precedence over this annotation.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Pooled {
+
+	/**
+	 * @return the maximum number of idle instances kept
+	 */
+	int maxIdle() default 8;
+
+	/**
+	 * @return the time in milliseconds an instance can be idle before it is evicted
+	 */
+	long idleTimeoutMillis() default 60_000L;
+
+}
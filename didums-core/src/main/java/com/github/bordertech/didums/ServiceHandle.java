@@ -0,0 +1,121 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A pre-resolved handle to a service contract and qualifiers.
+ * <p>
+ * A handle is obtained via {@link Didums#lookup(Class, Annotation...)} and can be held in a constant. The first call
+ * to {@link #get()} resolves if the service is provided by the {@link DidumsProvider} or the {@link Factory} fallback.
+ * Later calls go straight to the resolved path until a binding is added via {@link Didums}, when the handle resolves
+ * again.
+ * </p>
+ * <pre>
+ * private static final ServiceHandle&lt;Foo&gt; FOO = Didums.lookup(Foo.class);
+ * ...
+ * Foo foo = FOO.get();
+ * </pre>
+ * <p>
+ * The scope of the instance returned is the same as {@link Didums#getService(Class, Annotation...)}.
+ * </p>
+ *
+ * @param <T> the service type
+ * @author Jonathan Austin
+ * @see Didums
+ * @since 1.0.6
+ */
+public final class ServiceHandle<T> {
+
+	private final DidumsProvider provider;
+
+	private final AtomicInteger bindingVersion;
+
+	private final Class<T> contract;
+
+	private final Class<? extends T> defaultImpl;
+
+	private final Annotation[] qualifiers;
+
+	private final ContractKey<T> factoryKey;
+
+	private final AtomicReference<Route> route = new AtomicReference<>();
+
+	/**
+	 * @param provider the didums provider
+	 * @param bindingVersion the binding version, which changes each time a binding is added
+	 * @param contract the service contract
+	 * @param defaultImpl the default implementation if no implementation is found or null
+	 * @param factoryKey the factory contract key for the service and qualifiers
+	 * @param qualifiers the service qualifiers
+	 */
+	ServiceHandle(final DidumsProvider provider, final AtomicInteger bindingVersion, final Class<T> contract,
+			final Class<? extends T> defaultImpl, final ContractKey<T> factoryKey, final Annotation... qualifiers) {
+		this.provider = provider;
+		this.bindingVersion = bindingVersion;
+		this.contract = contract;
+		this.defaultImpl = defaultImpl;
+		this.factoryKey = factoryKey;
+		this.qualifiers = qualifiers;
+	}
+
+	/**
+	 * @return the service contract
+	 */
+	public Class<T> getContract() {
+		return contract;
+	}
+
+	/**
+	 * Retrieve the implementation for this service and qualifiers.
+	 *
+	 * @return the implementation for this service and qualifiers
+	 */
+	public T get() {
+		DidumsMetrics.recordLookup(contract);
+		int version = bindingVersion.get();
+		Route current = route.get();
+		if (current != null && current.version == version) {
+			if (current.provider) {
+				T impl = provider.getService(contract, qualifiers);
+				DidumsMetrics.recordProviderResult(impl != null);
+				return impl == null ? getFactoryService() : impl;
+			}
+			DidumsMetrics.recordProviderResult(false);
+			return getFactoryService();
+		}
+		// Resolve the route
+		T impl = provider.getService(contract, qualifiers);
+		DidumsMetrics.recordProviderResult(impl != null);
+		route.set(new Route(version, impl != null));
+		return impl == null ? getFactoryService() : impl;
+	}
+
+	/**
+	 * @return the implementation from the factory
+	 */
+	private T getFactoryService() {
+		return defaultImpl == null ? Factory.newInstance(factoryKey) : Factory.newInstance(factoryKey, defaultImpl);
+	}
+
+	/**
+	 * The resolved path for a binding version.
+	 */
+	private static final class Route {
+
+		private final int version;
+
+		private final boolean provider;
+
+		/**
+		 * @param version the binding version the route was resolved for
+		 * @param provider true if the service is provided by the provider
+		 */
+		private Route(final int version, final boolean provider) {
+			this.version = version;
+			this.provider = provider;
+		}
+	}
+
+}
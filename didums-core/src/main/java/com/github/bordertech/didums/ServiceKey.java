@@ -0,0 +1,216 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A service contract and its qualifiers used as a key to cache lookups.
+ * <p>
+ * The keys are held against the contract class, so {@link #of(Class, Annotation...)} returns the same key for the
+ * same contract and qualifiers. A key is given an id when it is first bound, so a provider can hold its bindings in
+ * an array indexed by the id.
+ * </p>
+ * <p>
+ * The key also holds the lookup state {@link Didums} caches for the contract and qualifiers, so the state is released
+ * with the contract class rather than held in static maps.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+final class ServiceKey {
+
+	private static final Annotation[] NO_QUALIFIERS = new Annotation[0];
+
+	/**
+	 * The next id to allocate.
+	 */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	/**
+	 * Id of a key not bound yet.
+	 */
+	private static final int NO_ID = -1;
+
+	/**
+	 * The key of each contract without qualifiers.
+	 */
+	private static final ClassValue<ServiceKey> UNQUALIFIED_KEYS = new ClassValue<ServiceKey>() {
+		@Override
+		protected ServiceKey computeValue(final Class<?> type) {
+			return new ServiceKey(type);
+		}
+	};
+
+	/**
+	 * The keys of each contract with qualifiers.
+	 */
+	private static final ClassValue<Map<ServiceKey, ServiceKey>> QUALIFIED_KEYS = new ClassValue<Map<ServiceKey, ServiceKey>>() {
+		@Override
+		protected Map<ServiceKey, ServiceKey> computeValue(final Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final Class<?> contract;
+
+	private final Annotation[] qualifiers;
+
+	private final int hash;
+
+	private final AtomicInteger id = new AtomicInteger(NO_ID);
+
+	/**
+	 * The binding version when the provider was found to have no binding for the key, or -1 if not checked.
+	 */
+	private final AtomicInteger providerMissVersion = new AtomicInteger(NO_ID);
+
+	/**
+	 * The factory contract key of the contract and qualifiers.
+	 */
+	private final AtomicReference<ContractKey<?>> factoryKey = new AtomicReference<>();
+
+	/**
+	 * The pool of the provider instances and the binding version it was created for.
+	 */
+	private final AtomicReference<VersionedPool> providerPool = new AtomicReference<>();
+
+	/**
+	 * @param contract the service contract
+	 * @param qualifiers the service qualifiers
+	 */
+	ServiceKey(final Class<?> contract, final Annotation... qualifiers) {
+		this.contract = contract;
+		this.qualifiers = qualifiers == null || qualifiers.length == 0 ? NO_QUALIFIERS : qualifiers.clone();
+		this.hash = 31 * contract.hashCode() + Arrays.hashCode(this.qualifiers);
+	}
+
+	/**
+	 * @param contract the service contract
+	 * @param qualifiers the service qualifiers
+	 * @return the key for the contract and qualifiers
+	 */
+	static ServiceKey of(final Class<?> contract, final Annotation... qualifiers) {
+		if (qualifiers == null || qualifiers.length == 0) {
+			return UNQUALIFIED_KEYS.get(contract);
+		}
+		ServiceKey key = new ServiceKey(contract, qualifiers);
+		ServiceKey existing = QUALIFIED_KEYS.get(contract).putIfAbsent(key, key);
+		return existing == null ? key : existing;
+	}
+
+	/**
+	 * @return the id of the key, or -1 if it has not been bound
+	 */
+	int getId() {
+		return id.get();
+	}
+
+	/**
+	 * @return the id of the key, allocating an id if it has not been bound
+	 */
+	int bindId() {
+		int current = id.get();
+		if (current == NO_ID) {
+			id.compareAndSet(NO_ID, NEXT_ID.getAndIncrement());
+			current = id.get();
+		}
+		return current;
+	}
+
+	/**
+	 * @param version the current binding version
+	 * @return true if the provider was found to have no binding for the key at the binding version
+	 */
+	boolean isProviderMiss(final int version) {
+		return providerMissVersion.get() == version;
+	}
+
+	/**
+	 * @param version the binding version when the provider was found to have no binding for the key
+	 */
+	void setProviderMiss(final int version) {
+		providerMissVersion.set(version);
+	}
+
+	/**
+	 * @return the factory contract key or null if not set
+	 */
+	ContractKey<?> getFactoryKey() {
+		return factoryKey.get();
+	}
+
+	/**
+	 * @param key the factory contract key
+	 */
+	void setFactoryKey(final ContractKey<?> key) {
+		factoryKey.set(key);
+	}
+
+	/**
+	 * @param version the current binding version
+	 * @return the pool of the provider instances created for the binding version, or null if none
+	 */
+	InstancePool<?> getProviderPool(final int version) {
+		VersionedPool current = providerPool.get();
+		return current == null || current.version != version ? null : current.pool;
+	}
+
+	/**
+	 * Set the pool of the provider instances, unless a pool has already been set for the binding version.
+	 *
+	 * @param version the binding version the pool is created for
+	 * @param pool the pool of the provider instances
+	 * @return the pool set for the binding version
+	 */
+	InstancePool<?> setProviderPool(final int version, final InstancePool<?> pool) {
+		VersionedPool current = providerPool.get();
+		if (current != null && current.version == version) {
+			return current.pool;
+		}
+		providerPool.compareAndSet(current, new VersionedPool(version, pool));
+		InstancePool<?> set = getProviderPool(version);
+		return set == null ? pool : set;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ServiceKey)) {
+			return false;
+		}
+		ServiceKey other = (ServiceKey) obj;
+		return hash == other.hash && contract.equals(other.contract) && Arrays.equals(qualifiers, other.qualifiers);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * A pool and the binding version it was created for.
+	 */
+	private static final class VersionedPool {
+
+		private final int version;
+
+		private final InstancePool<?> pool;
+
+		/**
+		 * @param version the binding version
+		 * @param pool the pool
+		 */
+		private VersionedPool(final int version, final InstancePool<?> pool) {
+			this.version = version;
+			this.pool = pool;
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BinderRunner}.
+ */
+public class BinderRunnerTest {
+
+	@Test
+	public void testSerialBindsDirectly() {
+		TestProvider provider = new TestProvider();
+		BinderRunner.configBindingsSerial(provider, Arrays.asList(new TestBinderA(), new TestBinderB()));
+		Assert.assertEquals("Should not use bindAll", 0, provider.bindAllCalls);
+		Assert.assertEquals("Incorrect bindings", Arrays.asList(TestImplA.class, TestImplB.class), provider.bound);
+	}
+
+	@Test
+	public void testParallelBindsInBinderOrder() {
+		TestProvider provider = new TestProvider();
+		// Binder A waits for binder B so B records first
+		CountDownLatch latch = new CountDownLatch(1);
+		List<DidumsBinder> binders = Arrays.asList(p -> {
+			await(latch);
+			new TestBinderA().configBindings(p);
+		}, p -> {
+			new TestBinderB().configBindings(p);
+			latch.countDown();
+		});
+		BinderRunner.configBindingsParallel(provider, binders, 2);
+		Assert.assertEquals("Should add the bindings in one bindAll", 1, provider.bindAllCalls);
+		Assert.assertEquals("Bindings should be in binder order", Arrays.asList(TestImplA.class, TestImplB.class), provider.bound);
+	}
+
+	@Test
+	public void testParallelLookupPassedThrough() {
+		TestProvider provider = new TestProvider();
+		List<Object> found = new ArrayList<>();
+		BinderRunner.configBindingsParallel(provider, Arrays.asList(p -> found.add(p.getService(TestContract.class)), new TestBinderB()), 2);
+		Assert.assertEquals("Lookup should be passed to the provider", Arrays.asList("service"), found);
+	}
+
+	@Test
+	public void testParallelBinderFails() {
+		TestProvider provider = new TestProvider();
+		IllegalStateException cause = new IllegalStateException("binder failed");
+		try {
+			BinderRunner.configBindingsParallel(provider, Arrays.asList(new TestBinderA(), p -> {
+				throw cause;
+			}), 2);
+			Assert.fail("Should throw a FactoryException");
+		} catch (FactoryException e) {
+			Assert.assertSame("Incorrect cause", cause, e.getCause());
+		}
+		Assert.assertTrue("No bindings should be added", provider.bound.isEmpty());
+	}
+
+	/**
+	 * @param latch the latch to wait for
+	 */
+	private static void await(final CountDownLatch latch) {
+		try {
+			Assert.assertTrue("Latch should be released", latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A test contract.
+	 */
+	public interface TestContract {
+	}
+
+	/**
+	 * Implementation A.
+	 */
+	public static final class TestImplA implements TestContract {
+	}
+
+	/**
+	 * Implementation B.
+	 */
+	public static final class TestImplB implements TestContract {
+	}
+
+	/**
+	 * Binder A.
+	 */
+	public static final class TestBinderA implements DidumsBinder {
+
+		@Override
+		public void configBindings(final DidumsProvider provider) {
+			provider.bind(TestContract.class, TestImplA.class, false);
+		}
+	}
+
+	/**
+	 * Binder B.
+	 */
+	public static final class TestBinderB implements DidumsBinder {
+
+		@Override
+		public void configBindings(final DidumsProvider provider) {
+			provider.bind(TestContract.class, TestImplB.class, false);
+		}
+	}
+
+	/**
+	 * Provider that records the implementations bound.
+	 */
+	private static final class TestProvider implements DidumsProvider {
+
+		private final List<Class<?>> bound = new ArrayList<>();
+
+		private int bindAllCalls;
+
+		@Override
+		public <T> T getService(final Class<T> contract, final Annotation... qualifiers) {
+			return (T) "service";
+		}
+
+		@Override
+		public <T> T createAndInject(final Class<T> createMe) {
+			return null;
+		}
+
+		@Override
+		public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers) {
+			bound.add(contractImpl);
+		}
+
+		@Override
+		public void bindAll(final Collection<? extends Binding<?>> bindings) {
+			bindAllCalls++;
+			for (Binding<?> binding : bindings) {
+				bound.add(binding.getContractImpl());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Binding}.
+ */
+public class BindingTest {
+
+	private static final Annotation QUALIFIER = new DidumsTest.TestAnnotatation();
+
+	@Test
+	public void testBinding() {
+		Binding<TestBindingInterface> binding = new Binding<>(TestBindingInterface.class, TestBindingImpl.class, true, QUALIFIER);
+		Assert.assertEquals("Incorrect contract", TestBindingInterface.class, binding.getContract());
+		Assert.assertEquals("Incorrect contract impl", TestBindingImpl.class, binding.getContractImpl());
+		Assert.assertTrue("Should be singleton", binding.isSingleton());
+		Assert.assertArrayEquals("Incorrect qualifiers", new Annotation[]{QUALIFIER}, binding.getQualifiers());
+	}
+
+	@Test
+	public void testCachedBinding() {
+		CacheOptions cache = new CacheOptions(1_000L, true);
+		Binding<TestBindingInterface> binding = new Binding<>(TestBindingInterface.class, TestBindingImpl.class, cache);
+		Assert.assertSame("Incorrect cache options", cache, binding.getCache());
+		Assert.assertFalse("Cached binding should not be singleton", binding.isSingleton());
+		Assert.assertNull("Should not be cached", new Binding<>(TestBindingInterface.class, TestBindingImpl.class, false).getCache());
+	}
+
+	@Test
+	public void testQualifiersCopied() {
+		Annotation[] qualifiers = new Annotation[]{QUALIFIER};
+		Binding<TestBindingInterface> binding = new Binding<>(TestBindingInterface.class, TestBindingImpl.class, false, qualifiers);
+		qualifiers[0] = null;
+		Assert.assertSame("Qualifiers should be copied", QUALIFIER, binding.getQualifiers()[0]);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullContract() {
+		new Binding<>(null, TestBindingImpl.class, false);
+	}
+
+	@Test
+	public void testDefaultBindAll() {
+		TestRecordingProvider provider = new TestRecordingProvider();
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestBindingInterface.class, TestBindingImpl.class, false),
+				new Binding<>(TestBindingInterface.class, TestBindingImpl.class, true, QUALIFIER)));
+		Assert.assertEquals("Incorrect bindings", Arrays.asList("false:0", "true:1"), provider.binds);
+	}
+
+	@Test
+	public void testDefaultCachedBindUnscoped() {
+		TestRecordingProvider provider = new TestRecordingProvider();
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestBindingInterface.class, TestBindingImpl.class, new CacheOptions(1_000L, false))));
+		Assert.assertEquals("Cached binding should fall back to an unscoped binding", Arrays.asList("false:0"), provider.binds);
+	}
+
+	/**
+	 * A test interface to bind.
+	 */
+	public interface TestBindingInterface {
+	}
+
+	/**
+	 * An implementation of the test interface.
+	 */
+	public static final class TestBindingImpl implements TestBindingInterface {
+	}
+
+	/**
+	 * Provider that records the binds.
+	 */
+	private static final class TestRecordingProvider implements DidumsProvider {
+
+		private final List<String> binds = new ArrayList<>();
+
+		@Override
+		public <T> T getService(final Class<T> contract, final Annotation... qualifiers) {
+			return null;
+		}
+
+		@Override
+		public <T> T createAndInject(final Class<T> createMe) {
+			return null;
+		}
+
+		@Override
+		public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers) {
+			binds.add(singleton + ":" + qualifiers.length);
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.github.bordertech.didums;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ContractKey}.
+ */
+public class ContractKeyTest {
+
+	@Test
+	public void testKeySuffixNoQualifiers() {
+		ContractKey<ContractKeyTest> key = new ContractKey<>(ContractKeyTest.class);
+		Assert.assertEquals("Incorrect key suffix", ContractKeyTest.class.getName(), key.getKeySuffix());
+		Assert.assertEquals("Incorrect contract", ContractKeyTest.class, key.getContract());
+		Assert.assertEquals("Should have no qualifiers", 0, key.getQualifiers().length);
+	}
+
+	@Test
+	public void testKeySuffixQualifiers() {
+		ContractKey<ContractKeyTest> key = new ContractKey<>(ContractKeyTest.class, "use", "", null, "another");
+		Assert.assertEquals("Incorrect key suffix", ContractKeyTest.class.getName() + ".use.another", key.getKeySuffix());
+	}
+
+	@Test
+	public void testParamKey() {
+		ContractKey<ContractKeyTest> key = new ContractKey<>(ContractKeyTest.class, "use");
+		Assert.assertEquals("Incorrect param key", "bordertech.factory.impl." + ContractKeyTest.class.getName() + ".use", key.getParamKey());
+	}
+
+	@Test
+	public void testQualifiersCopied() {
+		String[] qualifiers = new String[]{"A"};
+		ContractKey<ContractKeyTest> key = new ContractKey<>(ContractKeyTest.class, qualifiers);
+		qualifiers[0] = "B";
+		Assert.assertEquals("Qualifiers should be copied", "A", key.getQualifiers()[0]);
+		Assert.assertEquals("Key suffix should not change", ContractKeyTest.class.getName() + ".A", key.getKeySuffix());
+	}
+
+	@Test
+	public void testEquals() {
+		ContractKey<ContractKeyTest> key = new ContractKey<>(ContractKeyTest.class, "A");
+		Assert.assertEquals("Keys should be equal", key, new ContractKey<>(ContractKeyTest.class, "A"));
+		Assert.assertEquals("Hash codes should be equal", key.hashCode(), new ContractKey<>(ContractKeyTest.class, "A").hashCode());
+		Assert.assertNotEquals("Keys with different qualifiers should not be equal", key, new ContractKey<>(ContractKeyTest.class, "B"));
+		Assert.assertNotEquals("Keys with different contracts should not be equal", key, new ContractKey<>(Object.class, "A"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullContract() {
+		new ContractKey<>(null);
+	}
+
+}
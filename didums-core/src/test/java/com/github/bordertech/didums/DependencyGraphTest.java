@@ -0,0 +1,287 @@
+package com.github.bordertech.didums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DependencyGraph}.
+ */
+public class DependencyGraphTest {
+
+	private static final CountDownLatch PARALLEL_LATCH = new CountDownLatch(2);
+
+	@Test
+	public void testLevels() {
+		Binding<TestLeaf> leaf = new Binding<>(TestLeaf.class, TestLeafImpl.class, true);
+		Binding<TestMiddle> middle = new Binding<>(TestMiddle.class, TestMiddleImpl.class, true);
+		Binding<TestTop> top = new Binding<>(TestTop.class, TestTopImpl.class, false);
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(top, middle, leaf));
+		List<List<Binding<?>>> levels = graph.getLevels();
+		Assert.assertEquals("Incorrect number of levels", 3, levels.size());
+		Assert.assertEquals("Leaf should be first", Arrays.asList(leaf), levels.get(0));
+		Assert.assertEquals("Middle should be second", Arrays.asList(middle), levels.get(1));
+		Assert.assertEquals("Top should be last", Arrays.asList(top), levels.get(2));
+		Assert.assertTrue("Should have no cycles", graph.getCycles().isEmpty());
+		Assert.assertTrue("Should have no missing bindings", graph.getMissing().isEmpty());
+		graph.validate();
+	}
+
+	@Test
+	public void testMissingBinding() {
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(new Binding<>(TestTop.class, TestTopImpl.class, false)));
+		Assert.assertEquals("Both dependencies should be missing", 2, graph.getMissing().size());
+		Assert.assertTrue("Missing leaf should be reported", graph.getMissing().get(0).contains(TestLeaf.class.getName()));
+		Assert.assertTrue("Missing middle should be reported", graph.getMissing().get(1).contains(TestMiddle.class.getName()));
+		Assert.assertEquals("Service with missing bindings should still have a level", 1, graph.getLevels().size());
+	}
+
+	@Test
+	public void testMissingProviderBinding() {
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(new Binding<>(TestCycleB.class, TestCycleBProviderImpl.class, true)));
+		Assert.assertEquals("Provider dependency should be missing", 1, graph.getMissing().size());
+	}
+
+	@Test(expected = FactoryException.class)
+	public void testValidateMissingBinding() {
+		new DependencyGraph(Arrays.asList(new Binding<>(TestTop.class, TestTopImpl.class, false))).validate();
+	}
+
+	@Test
+	public void testUnknownImplementation() {
+		Binding<TestLeaf> unknown = new Binding<>(TestLeaf.class, TestUnknownImpl.class, true);
+		Binding<TestMiddle> middle = new Binding<>(TestMiddle.class, TestMiddleImpl.class, true);
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(middle, unknown));
+		Assert.assertEquals("Implementation without an inject constructor should be unknown", 1, graph.getUnknown().size());
+		Assert.assertTrue("Unknown implementation should be reported", graph.getUnknown().get(0).contains(TestUnknownImpl.class.getName()));
+		Assert.assertEquals("Unknown implementation should still have a level", Arrays.asList(Arrays.asList(unknown), Arrays.asList(middle)), graph.getLevels());
+		graph.validate();
+	}
+
+	@Test
+	public void testCycle() {
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(
+				new Binding<>(TestCycleA.class, TestCycleAImpl.class, true),
+				new Binding<>(TestCycleB.class, TestCycleBImpl.class, true),
+				new Binding<>(TestLeaf.class, TestLeafImpl.class, true)));
+		Assert.assertEquals("Incorrect cycles", Arrays.asList(TestCycleAImpl.class.getName() + " -> " + TestCycleBImpl.class.getName()
+				+ " -> " + TestCycleAImpl.class.getName()), graph.getCycles());
+		Assert.assertEquals("Only the service outside the cycle should have a level", 1, graph.getLevels().size());
+		try {
+			graph.validate();
+			Assert.fail("Cycle should not be valid");
+		} catch (FactoryException e) {
+			Assert.assertTrue("Cycle should be reported", e.getMessage().contains("Dependency cycle found"));
+		}
+	}
+
+	@Test
+	public void testCycleViaProvider() {
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(
+				new Binding<>(TestCycleA.class, TestCycleAImpl.class, true),
+				new Binding<>(TestCycleB.class, TestCycleBProviderImpl.class, true)));
+		Assert.assertTrue("Provider should not form a cycle", graph.getCycles().isEmpty());
+		Assert.assertEquals("Incorrect number of levels", 2, graph.getLevels().size());
+	}
+
+	@Test
+	public void testCreateSingletons() throws InterruptedException, ExecutionException, TimeoutException {
+		NativeDidumsProvider provider = new NativeDidumsProvider();
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestLeaf.class, TestLeafImpl.class, true),
+				new Binding<>(TestMiddle.class, TestMiddleImpl.class, true),
+				new Binding<>(TestTop.class, TestTopImpl.class, false)));
+		DependencyGraph graph = new DependencyGraph(provider.getBindings());
+		graph.createSingletons(provider, Runnable::run).get(5, TimeUnit.SECONDS);
+		TestTopImpl top = (TestTopImpl) provider.getService(TestTop.class);
+		Assert.assertSame("Singleton should have been created", provider.getService(TestMiddle.class), top.middle);
+	}
+
+	@Test
+	public void testCreateSingletonsInParallel() throws InterruptedException, ExecutionException, TimeoutException {
+		NativeDidumsProvider provider = new NativeDidumsProvider();
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestParallelA.class, TestParallelAImpl.class, true),
+				new Binding<>(TestParallelB.class, TestParallelBImpl.class, true)));
+		DependencyGraph graph = new DependencyGraph(provider.getBindings());
+		Assert.assertEquals("Independent singletons should be in one level", 1, graph.getLevels().size());
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// Each singleton waits for the other to be started
+			graph.createSingletons(provider, executor).get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void testCreateSingletonsCycle() throws InterruptedException, ExecutionException, TimeoutException {
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(
+				new Binding<>(TestCycleA.class, TestCycleAImpl.class, true),
+				new Binding<>(TestCycleB.class, TestCycleBImpl.class, true)));
+		graph.createSingletons(new NativeDidumsProvider(), Runnable::run).get(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Count down the parallel latch and wait for the other singleton.
+	 */
+	private static void awaitParallel() {
+		PARALLEL_LATCH.countDown();
+		try {
+			if (!PARALLEL_LATCH.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Singletons not created in parallel.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Service with no dependencies.
+	 */
+	public interface TestLeaf {
+	}
+
+	/**
+	 * Service that depends on the leaf.
+	 */
+	public interface TestMiddle {
+	}
+
+	/**
+	 * Service that depends on the middle and leaf.
+	 */
+	public interface TestTop {
+	}
+
+	/**
+	 * Leaf implementation.
+	 */
+	public static final class TestLeafImpl implements TestLeaf {
+	}
+
+	/**
+	 * Leaf implementation without an inject or no-argument constructor.
+	 */
+	public static final class TestUnknownImpl implements TestLeaf {
+
+		/**
+		 * @param name the name
+		 */
+		public TestUnknownImpl(final String name) {
+		}
+	}
+
+	/**
+	 * Middle implementation.
+	 */
+	public static final class TestMiddleImpl implements TestMiddle {
+
+		/**
+		 * @param leaf the injected leaf
+		 */
+		@Inject
+		public TestMiddleImpl(final TestLeaf leaf) {
+		}
+	}
+
+	/**
+	 * Top implementation.
+	 */
+	public static final class TestTopImpl implements TestTop {
+
+		@Inject
+		private TestLeaf leaf;
+
+		@Inject
+		private TestMiddle middle;
+	}
+
+	/**
+	 * First contract of a cycle.
+	 */
+	public interface TestCycleA {
+	}
+
+	/**
+	 * Second contract of a cycle.
+	 */
+	public interface TestCycleB {
+	}
+
+	/**
+	 * Depends on the second contract.
+	 */
+	public static final class TestCycleAImpl implements TestCycleA {
+
+		@Inject
+		private TestCycleB cycleB;
+	}
+
+	/**
+	 * Depends on the first contract.
+	 */
+	public static final class TestCycleBImpl implements TestCycleB {
+
+		@Inject
+		private TestCycleA cycleA;
+	}
+
+	/**
+	 * Depends on a provider of the first contract.
+	 */
+	public static final class TestCycleBProviderImpl implements TestCycleB {
+
+		@Inject
+		private Provider<TestCycleA> cycleA;
+	}
+
+	/**
+	 * First independent singleton.
+	 */
+	public interface TestParallelA {
+	}
+
+	/**
+	 * Second independent singleton.
+	 */
+	public interface TestParallelB {
+	}
+
+	/**
+	 * Waits for the second singleton to be started.
+	 */
+	public static final class TestParallelAImpl implements TestParallelA {
+
+		/**
+		 * Wait for the other singleton.
+		 */
+		public TestParallelAImpl() {
+			awaitParallel();
+		}
+	}
+
+	/**
+	 * Waits for the first singleton to be started.
+	 */
+	public static final class TestParallelBImpl implements TestParallelB {
+
+		/**
+		 * Wait for the other singleton.
+		 */
+		public TestParallelBImpl() {
+			awaitParallel();
+		}
+	}
+
+}
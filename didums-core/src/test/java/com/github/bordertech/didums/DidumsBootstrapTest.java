@@ -0,0 +1,145 @@
+package com.github.bordertech.didums;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DidumsBootstrap}.
+ */
+public class DidumsBootstrapTest {
+
+	@Test
+	public void testLazyInitialization() {
+		AtomicInteger created = new AtomicInteger();
+		DidumsBootstrap bootstrap = new DidumsBootstrap(() -> {
+			created.incrementAndGet();
+			return new DefaultDidumsProvider();
+		}, provider -> {
+		});
+		Assert.assertFalse("Should not be initialized", bootstrap.isInitialized());
+		Assert.assertEquals("Provider should not be created until used", 0, created.get());
+		DidumsProvider provider = bootstrap.getProvider();
+		Assert.assertTrue("Should be initialized", bootstrap.isInitialized());
+		Assert.assertSame("Should be the same provider", provider, bootstrap.getProvider());
+		Assert.assertEquals("Provider should be created once", 1, created.get());
+	}
+
+	@Test
+	public void testRetryAfterFailure() {
+		AtomicInteger attempts = new AtomicInteger();
+		DidumsBootstrap bootstrap = new DidumsBootstrap(DefaultDidumsProvider::new, provider -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new IllegalStateException("binder failed");
+			}
+		});
+		try {
+			bootstrap.getProvider();
+			Assert.fail("Should throw the binder exception");
+		} catch (IllegalStateException e) {
+			Assert.assertFalse("Should not be initialized after failure", bootstrap.isInitialized());
+		}
+		Assert.assertNotNull("Should initialize on retry", bootstrap.getProvider());
+		Assert.assertTrue("Should be initialized after retry", bootstrap.isInitialized());
+		Assert.assertEquals("Incorrect number of attempts", 2, attempts.get());
+	}
+
+	@Test
+	public void testFailedProviderClosed() {
+		AtomicInteger closed = new AtomicInteger();
+		AtomicInteger attempts = new AtomicInteger();
+		DidumsBootstrap bootstrap = new DidumsBootstrap(() -> new TestCloseableProvider(closed), provider -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new IllegalStateException("binder failed");
+			}
+		});
+		try {
+			bootstrap.getProvider();
+			Assert.fail("Should throw the binder exception");
+		} catch (IllegalStateException e) {
+			Assert.assertEquals("Failed provider should be closed", 1, closed.get());
+		}
+		DidumsProvider provider = bootstrap.getProvider();
+		Assert.assertEquals("Configured provider should not be closed", 1, closed.get());
+		Assert.assertSame("Should keep the configured provider", provider, bootstrap.getProvider());
+	}
+
+	@Test
+	public void testParallelBinderLookupWhileConfiguring() {
+		AtomicReference<DidumsProvider> lookup = new AtomicReference<>();
+		DidumsBootstrap[] bootstrap = new DidumsBootstrap[1];
+		bootstrap[0] = new DidumsBootstrap(DefaultDidumsProvider::new, provider -> BinderRunner.configBindingsParallel(provider,
+				Arrays.asList(p -> lookup.set(bootstrap[0].getProvider()), p -> {
+				}), 2));
+		DidumsProvider provider = bootstrap[0].getProvider();
+		Assert.assertSame("Lookup from a parallel binder should get the provider being configured", provider, lookup.get());
+	}
+
+	@Test
+	public void testLookupWhileConfiguring() {
+		AtomicReference<DidumsProvider> holder = new AtomicReference<>();
+		AtomicReference<DidumsProvider> lookup = new AtomicReference<>();
+		DidumsBootstrap[] bootstrap = new DidumsBootstrap[1];
+		bootstrap[0] = new DidumsBootstrap(() -> {
+			DidumsProvider provider = new DefaultDidumsProvider();
+			holder.set(provider);
+			return provider;
+		}, provider -> lookup.set(bootstrap[0].getProvider()));
+		DidumsProvider provider = bootstrap[0].getProvider();
+		Assert.assertSame("Should return the created provider", holder.get(), provider);
+		Assert.assertSame("Lookup while configuring should get the provider being configured", holder.get(), lookup.get());
+	}
+
+	@Test
+	public void testIsInitializedDoesNotBlock() throws Exception {
+		CountDownLatch configuring = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		DidumsBootstrap bootstrap = new DidumsBootstrap(DefaultDidumsProvider::new, provider -> {
+			configuring.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<DidumsProvider> result = executor.submit(bootstrap::getProvider);
+			Assert.assertTrue("Should start configuring", configuring.await(5, TimeUnit.SECONDS));
+			Assert.assertFalse("Should not be initialized while configuring", bootstrap.isInitialized());
+			release.countDown();
+			Assert.assertNotNull("Should create the provider", result.get(5, TimeUnit.SECONDS));
+			Assert.assertTrue("Should be initialized", bootstrap.isInitialized());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Provider that counts the times it is closed.
+	 */
+	private static final class TestCloseableProvider extends DefaultDidumsProvider implements AutoCloseable {
+
+		private final AtomicInteger closed;
+
+		/**
+		 * @param closed the close count
+		 */
+		private TestCloseableProvider(final AtomicInteger closed) {
+			this.closed = closed;
+		}
+
+		@Override
+		public void close() {
+			closed.incrementAndGet();
+		}
+	}
+
+}
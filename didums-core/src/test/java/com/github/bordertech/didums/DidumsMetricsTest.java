@@ -0,0 +1,93 @@
+package com.github.bordertech.didums;
+
+import java.util.Map;
+import javax.management.NotCompliantMBeanException;
+import javax.management.StandardMBean;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DidumsMetrics}.
+ */
+public class DidumsMetricsTest {
+
+	@Test
+	public void testDisabledByDefault() {
+		Assert.assertFalse("Metrics should be disabled by default", DidumsMetrics.isEnabled());
+		long lookups = DidumsMetrics.getInstance().getLookupCount();
+		Didums.getService(DidumsMetricsTest.class, DidumsMetricsTest.class);
+		Assert.assertEquals("Should not record when disabled", lookups, DidumsMetrics.getInstance().getLookupCount());
+	}
+
+	@Test
+	public void testLookups() {
+		DidumsMetrics metrics = new DidumsMetrics();
+		metrics.addLookup(String.class);
+		metrics.addLookup(String.class);
+		metrics.addLookup(Integer.class);
+		metrics.addProviderResult(true);
+		metrics.addProviderResult(false);
+		metrics.addProviderResult(false);
+		Assert.assertEquals("Incorrect lookup count", 3, metrics.getLookupCount());
+		Assert.assertEquals("Incorrect contract lookup count", Long.valueOf(2), metrics.getLookupCounts().get(String.class.getName()));
+		Assert.assertEquals("Incorrect contract lookup count", Long.valueOf(1), metrics.getLookupCounts().get(Integer.class.getName()));
+		Assert.assertEquals("Incorrect provider hit count", 1, metrics.getProviderHitCount());
+		Assert.assertEquals("Incorrect factory fallback count", 2, metrics.getFactoryFallbackCount());
+	}
+
+	@Test
+	public void testCaches() {
+		DidumsMetrics metrics = new DidumsMetrics();
+		metrics.addCacheHit("a");
+		metrics.addCacheHit("a");
+		metrics.addCacheMiss("a");
+		metrics.addCacheMiss("b");
+		metrics.addCacheEviction("b");
+		Assert.assertEquals("Incorrect cache hits", Long.valueOf(2), metrics.getCacheHitCounts().get("a"));
+		Assert.assertEquals("Incorrect cache misses", Long.valueOf(1), metrics.getCacheMissCounts().get("a"));
+		Assert.assertNull("Should have no hits", metrics.getCacheHitCounts().get("b"));
+		Assert.assertEquals("Incorrect cache misses", Long.valueOf(1), metrics.getCacheMissCounts().get("b"));
+		Assert.assertEquals("Incorrect cache evictions", Long.valueOf(1), metrics.getCacheEvictionCounts().get("b"));
+		Assert.assertNull("Should have no evictions", metrics.getCacheEvictionCounts().get("a"));
+	}
+
+	@Test
+	public void testInstantiationHistogram() {
+		DidumsMetrics metrics = new DidumsMetrics();
+		metrics.addInstantiation(10L);
+		metrics.addInstantiation(999L);
+		metrics.addInstantiation(1_000L);
+		metrics.addInstantiation(5_000_000L);
+		metrics.addInstantiation(1_000_000_000L);
+		metrics.addSingletonCreation();
+		metrics.addFactoryException();
+		Map<String, Long> histogram = metrics.getInstantiationLatencyHistogram();
+		Assert.assertEquals("Incorrect instantiation count", 5, metrics.getInstantiationCount());
+		Assert.assertEquals("Incorrect <1us bucket", Long.valueOf(2), histogram.get("<1us"));
+		Assert.assertEquals("Incorrect <10us bucket", Long.valueOf(1), histogram.get("<10us"));
+		Assert.assertEquals("Incorrect <10ms bucket", Long.valueOf(1), histogram.get("<10ms"));
+		Assert.assertEquals("Incorrect >=100ms bucket", Long.valueOf(1), histogram.get(">=100ms"));
+		Assert.assertEquals("Incorrect singleton creation count", 1, metrics.getSingletonCreationCount());
+		Assert.assertEquals("Incorrect factory exception count", 1, metrics.getFactoryExceptionCount());
+	}
+
+	@Test
+	public void testReset() {
+		DidumsMetrics metrics = new DidumsMetrics();
+		metrics.addLookup(String.class);
+		metrics.addCacheHit("a");
+		metrics.addInstantiation(10L);
+		metrics.reset();
+		Assert.assertEquals("Lookups should be reset", 0, metrics.getLookupCount());
+		Assert.assertTrue("Contract lookups should be reset", metrics.getLookupCounts().isEmpty());
+		Assert.assertTrue("Cache hits should be reset", metrics.getCacheHitCounts().isEmpty());
+		Assert.assertEquals("Instantiations should be reset", 0, metrics.getInstantiationCount());
+		Assert.assertEquals("Histogram should be reset", Long.valueOf(0), metrics.getInstantiationLatencyHistogram().get("<1us"));
+	}
+
+	@Test
+	public void testMXBeanCompliant() throws NotCompliantMBeanException {
+		Assert.assertNotNull("Should be a valid MXBean", new StandardMBean(new DidumsMetrics(), DidumsMetricsMXBean.class, true));
+	}
+
+}
@@ -2,6 +2,8 @@ package com.github.bordertech.didums;
 
 import com.github.bordertech.config.Config;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
@@ -25,6 +27,47 @@ public class DidumsTest {
 		Assert.assertTrue("Invalid defalt provider implementation", Didums.getProvider() instanceof DefaultDidumsProvider);
 	}
 
+	@Test
+	public void testInit() {
+		Didums.init();
+		Assert.assertTrue("Should be initialized", Didums.isInitialized());
+	}
+
+	@Test
+	public void testWarmUp() throws Exception {
+		Config.getInstance().setProperty(PREFIX + TestDidumsInterface.class.getName(), TestDidumsInterfaceImpl.class.getName());
+		Config.notifyListeners();
+		Didums.warmUp(TestDidumsInterface.class).get();
+		Assert.assertTrue("Should be initialized", Didums.isInitialized());
+	}
+
+	@Test
+	public void testWarmUpAllConfigured() throws Exception {
+		Didums.warmUp().get();
+		Assert.assertTrue("Should be initialized", Didums.isInitialized());
+	}
+
+	@Test
+	public void testWarmUpAllConfiguredExecutor() throws Exception {
+		Didums.warmUp(Runnable::run).get();
+		Assert.assertTrue("Should be initialized", Didums.isInitialized());
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void testWarmUpFailure() throws Exception {
+		Didums.warmUp(TestDidumsInterface.class).get();
+	}
+
+	@Test
+	public void testDefaultProviderBindAllEmpty() {
+		Didums.bindAll(Collections.emptyList());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testDefaultProviderBindAll() {
+		Didums.bindAll(Collections.singletonList(new Binding<>(TestDidumsInterface.class, TestDidumsInterfaceImpl.class, false)));
+	}
+
 	@Test
 	public void testImplementationExists() {
 		// Should not exist
@@ -32,6 +75,7 @@ public class DidumsTest {
 		// Setup property
 		final String key = PREFIX + TestDidumsInterface.class.getName();
 		Config.getInstance().setProperty(key, TestDidumsInterfaceImpl.class.getName());
+		Config.notifyListeners();
 		// Should exist
 		Assert.assertTrue("An implementation should exist", Didums.hasService(TestDidumsInterface.class));
 	}
@@ -44,6 +88,7 @@ public class DidumsTest {
 	@Test
 	public void testNewInstanceWithImpl() {
 		Config.getInstance().setProperty(PREFIX + TestDidumsInterface.class.getName(), TestDidumsInterfaceImpl.class.getName());
+		Config.notifyListeners();
 		TestDidumsInterface impl = Didums.getService(TestDidumsInterface.class);
 		Assert.assertTrue("Should be an instanceof TestInterface", impl instanceof TestDidumsInterface);
 	}
@@ -55,6 +100,7 @@ public class DidumsTest {
 		// Setup property
 		final String key = PREFIX + TestDidumsInterface.class.getName() + "." + QUALIFIER;
 		Config.getInstance().setProperty(key, TestDidumsInterfaceImpl2.class.getName());
+		Config.notifyListeners();
 		// Should exist
 		Assert.assertTrue("An implementation with qualifier should exist", Didums.hasService(TestDidumsInterface.class, QUALIFIER));
 	}
@@ -78,6 +124,38 @@ public class DidumsTest {
 		Assert.assertTrue("Should be an instanceof the default impl", impl instanceof TestDidumsInterfaceImpl);
 	}
 
+	@Test
+	public void testLookupHandle() {
+		Config.getInstance().setProperty(PREFIX + TestDidumsInterface.class.getName(), TestDidumsInterfaceImpl.class.getName());
+		ServiceHandle<TestDidumsInterface> handle = Didums.lookup(TestDidumsInterface.class);
+		Assert.assertEquals("Incorrect handle contract", TestDidumsInterface.class, handle.getContract());
+		Assert.assertTrue("Should be an instanceof TestDidumsInterfaceImpl", handle.get() instanceof TestDidumsInterfaceImpl);
+		Assert.assertNotSame("Should be a new instance on each get", handle.get(), handle.get());
+	}
+
+	@Test
+	public void testLookupHandleQualifier() {
+		String key = PREFIX + TestDidumsInterface.class.getName() + "." + QUALIFIER;
+		Config.getInstance().setProperty(key, TestDidumsInterfaceImpl2.class.getName());
+		ServiceHandle<TestDidumsInterface> handle = Didums.lookup(TestDidumsInterface.class, QUALIFIER);
+		Assert.assertTrue("Should be an instanceof TestDidumsInterfaceImpl2", handle.get() instanceof TestDidumsInterfaceImpl2);
+	}
+
+	@Test
+	public void testLookupHandleDefaultImpl() {
+		ServiceHandle<TestDidumsInterface> handle = Didums.lookup(TestDidumsInterface.class, TestDidumsInterfaceImpl.class);
+		Assert.assertTrue("Should be an instanceof the default impl", handle.get() instanceof TestDidumsInterfaceImpl);
+		// Factory property overrides the default
+		Config.getInstance().setProperty(PREFIX + TestDidumsInterface.class.getName(), TestDidumsInterfaceImpl2.class.getName());
+		Config.notifyListeners();
+		Assert.assertTrue("Should be an instanceof the configured impl", handle.get() instanceof TestDidumsInterfaceImpl2);
+	}
+
+	@Test(expected = FactoryException.class)
+	public void testLookupHandleNoImpl() {
+		Didums.lookup(TestDidumsInterface.class).get();
+	}
+
 	/**
 	 * A test interface to use with the factory.
 	 */
@@ -1,6 +1,22 @@
 package com.github.bordertech.didums;
 
 import com.github.bordertech.config.Config;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Singleton;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
@@ -26,6 +42,7 @@ public class FactoryTest {
 		// Setup property
 		final String key = PREFIX + TestFactoryInterface.class.getName();
 		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl.class.getName());
+		Config.notifyListeners();
 		// Should exist
 		Assert.assertTrue("An implementation should exist", Factory.hasImplementation(TestFactoryInterface.class));
 	}
@@ -38,6 +55,7 @@ public class FactoryTest {
 	@Test
 	public void testNewInstanceWithImpl() {
 		Config.getInstance().setProperty(PREFIX + TestFactoryInterface.class.getName(), TestFactoryInterfaceImpl.class.getName());
+		Config.notifyListeners();
 		TestFactoryInterface impl = Factory.newInstance(TestFactoryInterface.class);
 		Assert.assertTrue("Should be an instanceof TestInterface", impl instanceof TestFactoryInterface);
 	}
@@ -49,6 +67,7 @@ public class FactoryTest {
 		// Setup property
 		final String key = PREFIX + TestFactoryInterface.class.getName() + "." + QUALIFIER;
 		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl2.class.getName());
+		Config.notifyListeners();
 		// Should exist
 		Assert.assertTrue("An implementation with qualifier should exist", Factory.hasImplementation(TestFactoryInterface.class, QUALIFIER));
 	}
@@ -72,6 +91,343 @@ public class FactoryTest {
 		Assert.assertTrue("Should be an instanceof the defualt impl", impl instanceof TestFactoryInterfaceImpl);
 	}
 
+	@Test
+	public void testContractKey() {
+		ContractKey<TestFactoryInterface> key = new ContractKey<>(TestFactoryInterface.class, QUALIFIER);
+		Assert.assertFalse("No implementation should exist for key", Factory.hasImplementation(key));
+		Assert.assertTrue("Should be an instanceof the default impl", Factory.newInstance(key, TestFactoryInterfaceImpl.class) instanceof TestFactoryInterfaceImpl);
+		// Setup property
+		Config.getInstance().setProperty(PREFIX + TestFactoryInterface.class.getName() + "." + QUALIFIER, TestFactoryInterfaceImpl2.class.getName());
+		Config.notifyListeners();
+		Assert.assertTrue("An implementation should exist for key", Factory.hasImplementation(key));
+		Assert.assertTrue("Should be an instanceof TestFactoryInterfaceImpl2", Factory.newInstance(key) instanceof TestFactoryInterfaceImpl2);
+		Assert.assertEquals("Should have one multi instance", 1, Factory.newMultiInstances(key).size());
+	}
+
+	@Test(expected = FactoryException.class)
+	public void testContractKeyNoImpl() {
+		Factory.newInstance(new ContractKey<>(TestFactoryInterface.class));
+	}
+
+	@Test
+	public void testImplementationCached() {
+		final String key = PREFIX + TestFactoryInterface.class.getName();
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl.class.getName());
+		Config.notifyListeners();
+		Assert.assertTrue("Should be an instanceof TestFactoryInterfaceImpl", Factory.newInstance(TestFactoryInterface.class) instanceof TestFactoryInterfaceImpl);
+		// Change property without notifying
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl2.class.getName());
+		Assert.assertTrue("Should still be the cached implementation", Factory.newInstance(TestFactoryInterface.class) instanceof TestFactoryInterfaceImpl);
+	}
+
+	@Test
+	public void testImplementationCacheClearedOnConfigChange() {
+		final String key = PREFIX + TestFactoryInterface.class.getName();
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl.class.getName());
+		Config.notifyListeners();
+		Assert.assertTrue("Should be an instanceof TestFactoryInterfaceImpl", Factory.newInstance(TestFactoryInterface.class) instanceof TestFactoryInterfaceImpl);
+		// Change property and notify
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl2.class.getName());
+		Config.notifyListeners();
+		Assert.assertTrue("Should be the new implementation", Factory.newInstance(TestFactoryInterface.class) instanceof TestFactoryInterfaceImpl2);
+		// Reset config
+		Config.reset();
+		Assert.assertFalse("No implementation should exist after reset", Factory.hasImplementation(TestFactoryInterface.class));
+	}
+
+	@Test
+	public void testImplementationCacheUnchangedKeyOnConfigChange() {
+		final String key = PREFIX + TestFactoryInterface.class.getName();
+		final String singletonKey = key + ".kept";
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl.class.getName());
+		Config.getInstance().setProperty(singletonKey, TestFactorySingletonImpl.class.getName());
+		Config.notifyListeners();
+		TestFactoryInterface singleton = Factory.newInstance(TestFactoryInterface.class, "kept");
+		Assert.assertTrue("Should be an instanceof TestFactoryInterfaceImpl", Factory.newInstance(TestFactoryInterface.class) instanceof TestFactoryInterfaceImpl);
+		// Change one property and notify
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl2.class.getName());
+		Config.notifyListeners();
+		Assert.assertTrue("Should be the new implementation", Factory.newInstance(TestFactoryInterface.class) instanceof TestFactoryInterfaceImpl2);
+		Assert.assertSame("Singleton of unchanged key should survive the change", singleton, Factory.newInstance(TestFactoryInterface.class, "kept"));
+	}
+
+	@Test
+	public void testIsChanged() {
+		Assert.assertFalse("Same value should not be changed", Factory.isChanged(new String[]{"a"}, new String[]{"a"}));
+		Assert.assertTrue("Different value should be changed", Factory.isChanged(new String[]{"a"}, new String[]{"b"}));
+		Assert.assertTrue("Added value should be changed", Factory.isChanged(new String[]{"a"}, new String[]{"a", "b"}));
+		Assert.assertTrue("Removed key should be changed", Factory.isChanged(new String[]{"a"}, null));
+		Assert.assertFalse("Undefined key should not be changed", Factory.isChanged(new String[0], null));
+		Assert.assertTrue("Defined key should be changed", Factory.isChanged(new String[0], new String[]{"a"}));
+	}
+
+	@Test
+	public void testSingletonInstance() {
+		TestFactoryInterface impl = Factory.newInstance(TestFactoryInterface.class, TestFactorySingletonImpl.class);
+		Assert.assertTrue("Should be an instanceof the singleton impl", impl instanceof TestFactorySingletonImpl);
+		Assert.assertSame("Should be the same singleton instance", impl, Factory.newInstance(TestFactoryInterface.class, TestFactorySingletonImpl.class));
+	}
+
+	@Test
+	public void testSingletonInstancePerClassLoader() throws ClassNotFoundException {
+		Class<? extends TestFactoryInterface> isolated = new IsolatingClassLoader(TestFactorySingletonImpl.class.getName())
+				.loadClass(TestFactorySingletonImpl.class.getName()).asSubclass(TestFactoryInterface.class);
+		Assert.assertNotSame("Class should be loaded by another class loader", TestFactorySingletonImpl.class, isolated);
+		TestFactoryInterface impl = Factory.newInstance(TestFactoryInterface.class, TestFactorySingletonImpl.class);
+		TestFactoryInterface other = Factory.newInstance(TestFactoryInterface.class, isolated);
+		Assert.assertSame("Should be an instance of the isolated class", isolated, other.getClass());
+		Assert.assertNotSame("Each class loader should have its own singleton", impl, other);
+		Assert.assertSame("Should be the same singleton instance of the isolated class", other, Factory.newInstance(TestFactoryInterface.class, isolated));
+	}
+
+	@Test
+	public void testRegistryPerClassLoader() throws InterruptedException {
+		TestFactoryRegistry.TestRegisteredContract impl = Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class, "single");
+		WeakReference<ClassLoader> loaderRef = new WeakReference<>(lookupIsolatedRegistry(impl));
+		// Release the isolated class loader
+		for (int i = 0; i < 50 && loaderRef.get() != null; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		Assert.assertNull("Isolated class loader should be collected", loaderRef.get());
+		Assert.assertSame("Should still be the registered singleton", impl, Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class, "single"));
+	}
+
+	/**
+	 * Lookup the registered singleton with a context class loader that loads its own copy of the test registry.
+	 *
+	 * @param impl the registered singleton of the test class loader
+	 * @return the isolated class loader
+	 */
+	private static ClassLoader lookupIsolatedRegistry(final TestFactoryRegistry.TestRegisteredContract impl) {
+		ClassLoader loader = new IsolatingClassLoader(TestFactoryRegistry.class.getName(),
+				TestFactoryRegistry.TestRegisteredImpl.class.getName(), TestFactoryRegistry.TestRegisteredSingletonImpl.class.getName());
+		Thread thread = Thread.currentThread();
+		ClassLoader original = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			TestFactoryRegistry.TestRegisteredContract other = Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class, "single");
+			Assert.assertSame("Should be registered by the isolated registry", loader, other.getClass().getClassLoader());
+			Assert.assertNotSame("Each class loader should have its own singleton", impl, other);
+			Assert.assertSame("Should be the same singleton of the isolated registry", other,
+					Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class, "single"));
+		} finally {
+			thread.setContextClassLoader(original);
+		}
+		return loader;
+	}
+
+	@Test
+	public void testCachedInstance() {
+		TestFactoryInterface impl = Factory.newInstance(TestFactoryInterface.class, TestFactoryCachedImpl.class);
+		Assert.assertTrue("Should be an instanceof the cached impl", impl instanceof TestFactoryCachedImpl);
+		Assert.assertSame("Should be the cached instance", impl, Factory.newInstance(TestFactoryInterface.class, TestFactoryCachedImpl.class));
+		try (PooledInstance<TestFactoryInterface> borrowed = Factory.borrow(TestFactoryInterface.class, TestFactoryCachedImpl.class)) {
+			Assert.assertFalse("Cached instance should not be pooled", borrowed.isPooled());
+			Assert.assertSame("Should borrow the cached instance", impl, borrowed.get());
+		}
+	}
+
+	@Test
+	public void testCachedInstanceExpired() throws InterruptedException {
+		// Read the count first as the instance can expire before the first request removes the expired instances
+		long expired = Factory.getCachedInstances().getExpiredCount();
+		TestFactoryInterface impl = Factory.newInstance(TestFactoryInterface.class, TestFactoryExpiringImpl.class);
+		Thread.sleep(20);
+		Assert.assertNotSame("Should be a new instance once expired", impl, Factory.newInstance(TestFactoryInterface.class, TestFactoryExpiringImpl.class));
+		Assert.assertEquals("Incorrect expired count", expired + 1, Factory.getCachedInstances().getExpiredCount());
+	}
+
+	@Test
+	public void testSingletonInstanceConcurrent() throws Exception {
+		final int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			List<Future<TestFactoryInterface>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return Factory.newInstance(TestFactoryInterface.class, TestFactorySlowSingletonImpl.class);
+				}));
+			}
+			start.countDown();
+			TestFactoryInterface first = results.get(0).get();
+			for (Future<TestFactoryInterface> result : results) {
+				Assert.assertSame("All threads should get the same singleton instance", first, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testNewInstanceNotSameInstance() {
+		TestFactoryInterface impl = Factory.newInstance(TestFactoryInterface.class, TestFactoryInterfaceImpl.class);
+		Assert.assertNotSame("Should be a new instance on each call", impl, Factory.newInstance(TestFactoryInterface.class, TestFactoryInterfaceImpl.class));
+	}
+
+	@Test(expected = FactoryException.class)
+	public void testNewInstanceAbstractImpl() {
+		Factory.newInstance(TestFactoryInterface.class, TestFactoryAbstractImpl.class);
+	}
+
+	@Test(expected = FactoryException.class)
+	public void testNewInstancePrivateConstructor() {
+		Factory.newInstance(TestFactoryInterface.class, TestFactoryPrivateImpl.class);
+	}
+
+	@Test
+	public void testRegisteredImplementation() {
+		int created = TestFactoryRegistry.CREATED.get();
+		Assert.assertTrue("Registered implementation should exist", Factory.hasImplementation(TestFactoryRegistry.TestRegisteredContract.class));
+		Assert.assertTrue("Should be the first registered implementation",
+				Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class) instanceof TestFactoryRegistry.TestRegisteredImpl);
+		Assert.assertEquals("Should use the registered creator", created + 1, TestFactoryRegistry.CREATED.get());
+	}
+
+	@Test
+	public void testRegisteredSingleton() {
+		TestFactoryRegistry.TestRegisteredContract impl = Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class, "single");
+		Assert.assertTrue("Should be the registered singleton", impl instanceof TestFactoryRegistry.TestRegisteredSingletonImpl);
+		Assert.assertSame("Should be the same singleton instance", impl, Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class, "single"));
+	}
+
+	@Test
+	public void testRegisteredMultiInstances() {
+		List<TestFactoryRegistry.TestRegisteredContract> impls = Factory.newMultiInstances(TestFactoryRegistry.TestRegisteredContract.class);
+		Assert.assertEquals("Should have all registered implementations", 2, impls.size());
+		Assert.assertTrue("Incorrect first implementation", impls.get(0) instanceof TestFactoryRegistry.TestRegisteredImpl);
+		Assert.assertTrue("Incorrect second implementation", impls.get(1) instanceof TestFactoryRegistry.TestRegisteredSingletonImpl);
+	}
+
+	@Test
+	public void testRegisteredImplementationConfigOverride() {
+		Config.getInstance().setProperty(PREFIX + TestFactoryRegistry.TestRegisteredContract.class.getName(), TestFactoryRegistry.TestUnregisteredImpl.class.getName());
+		Config.notifyListeners();
+		Assert.assertTrue("Config should override the registered implementation",
+				Factory.newInstance(TestFactoryRegistry.TestRegisteredContract.class) instanceof TestFactoryRegistry.TestUnregisteredImpl);
+		Assert.assertEquals("Config should override the registered multi implementations", 1,
+				Factory.newMultiInstances(TestFactoryRegistry.TestRegisteredContract.class).size());
+	}
+
+	@Test
+	public void testBorrowPooled() {
+		TestFactoryInterface first;
+		try (PooledInstance<TestFactoryInterface> borrowed = Factory.borrow(TestFactoryInterface.class, TestFactoryPooledImpl.class)) {
+			Assert.assertTrue("Should be pooled", borrowed.isPooled());
+			first = borrowed.get();
+			Assert.assertTrue("Should be an instanceof the pooled impl", first instanceof TestFactoryPooledImpl);
+		}
+		try (PooledInstance<TestFactoryInterface> borrowed = Factory.borrow(TestFactoryInterface.class, TestFactoryPooledImpl.class)) {
+			Assert.assertSame("Should reuse the returned instance", first, borrowed.get());
+		}
+		Assert.assertNotSame("newInstance should not use the pool", first, Factory.newInstance(TestFactoryInterface.class, TestFactoryPooledImpl.class));
+	}
+
+	@Test
+	public void testBorrowRegisteredPooled() {
+		try (PooledInstance<TestFactoryRegistry.TestRegisteredPooledImpl> borrowed
+				= Factory.borrow(TestFactoryRegistry.TestRegisteredPooledImpl.class, TestFactoryRegistry.TestRegisteredPooledImpl.class)) {
+			Assert.assertTrue("Should be pooled via the registered settings", borrowed.isPooled());
+		}
+	}
+
+	@Test
+	public void testBorrowNotPooled() {
+		TestFactoryInterface first;
+		try (PooledInstance<TestFactoryInterface> borrowed = Factory.borrow(TestFactoryInterface.class, TestFactoryInterfaceImpl.class)) {
+			Assert.assertFalse("Should not be pooled", borrowed.isPooled());
+			first = borrowed.get();
+		}
+		try (PooledInstance<TestFactoryInterface> borrowed = Factory.borrow(TestFactoryInterface.class, TestFactoryInterfaceImpl.class)) {
+			Assert.assertNotSame("Should be a new instance", first, borrowed.get());
+		}
+	}
+
+	@Test
+	public void testBorrowSingleton() {
+		try (PooledInstance<TestFactoryInterface> borrowed = Factory.borrow(TestFactoryInterface.class, TestFactorySingletonImpl.class)) {
+			Assert.assertFalse("Singleton should not be pooled", borrowed.isPooled());
+			Assert.assertSame("Should be the singleton instance", Factory.newInstance(TestFactoryInterface.class, TestFactorySingletonImpl.class), borrowed.get());
+		}
+	}
+
+	@Test
+	public void testPreloadSingleton() throws Exception {
+		Config.getInstance().setProperty(PREFIX + TestFactoryInterface.class.getName() + ".preload", TestFactoryPreloadSingletonImpl.class.getName());
+		Config.notifyListeners();
+		int created = TestFactoryPreloadSingletonImpl.CREATED.get();
+		Factory.preload(Arrays.asList(new ContractKey<>(TestFactoryInterface.class, "preload"),
+				new ContractKey<>(TestFactoryInterface.class, TestFactoryInterfaceImpl.class.getName()))).get();
+		Assert.assertEquals("Singleton should be created by preload", created + 1, TestFactoryPreloadSingletonImpl.CREATED.get());
+		Assert.assertTrue("Should be the preloaded singleton", Factory.newInstance(TestFactoryInterface.class, "preload") instanceof TestFactoryPreloadSingletonImpl);
+		Assert.assertEquals("Singleton should not be created again", created + 1, TestFactoryPreloadSingletonImpl.CREATED.get());
+	}
+
+	@Test
+	public void testPreloadAllConfigured() throws Exception {
+		Config.getInstance().setProperty(PREFIX + TestFactoryInterface.class.getName(), TestFactoryInterfaceImpl.class.getName());
+		Config.notifyListeners();
+		Factory.preload().get();
+	}
+
+	@Test
+	public void testPreloadFailure() throws InterruptedException {
+		Config.getInstance().setProperty(PREFIX + TestFactoryInterface.class.getName(), "my.example.MissingImpl");
+		Config.notifyListeners();
+		try {
+			Factory.preload(Collections.singletonList(new ContractKey<>(TestFactoryInterface.class))).get();
+			Assert.fail("Preload should fail");
+		} catch (ExecutionException e) {
+			Assert.assertTrue("Should fail with a factory exception", e.getCause() instanceof FactoryException);
+		}
+	}
+
+	@Test
+	public void testMultiInstancesCached() {
+		final String key = PREFIX + TestFactoryInterface.class.getName() + ".multi";
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl.class.getName());
+		Config.notifyListeners();
+		Assert.assertEquals("Should have one multi instance", 1, Factory.newMultiInstances(TestFactoryInterface.class, "multi").size());
+		// Change property without notifying
+		Config.getInstance().setProperty(key, TestFactoryInterfaceImpl.class.getName() + "," + TestFactoryInterfaceImpl2.class.getName());
+		Assert.assertEquals("Should still be the cached implementations", 1, Factory.newMultiInstances(TestFactoryInterface.class, "multi").size());
+		// Notify
+		Config.notifyListeners();
+		List<TestFactoryInterface> impls = Factory.newMultiInstances(TestFactoryInterface.class, "multi");
+		Assert.assertEquals("Should be the new implementations", 2, impls.size());
+		Assert.assertTrue("Incorrect second implementation", impls.get(1) instanceof TestFactoryInterfaceImpl2);
+	}
+
+	@Test
+	public void testLazyMultiInstances() {
+		Config.getInstance().setProperty(PREFIX + TestFactoryInterface.class.getName() + ".lazy",
+				TestFactoryCountedImpl.class.getName() + "," + TestFactoryCountedImpl.class.getName());
+		Config.notifyListeners();
+		int created = TestFactoryCountedImpl.CREATED.get();
+		Iterable<TestFactoryInterface> impls = Factory.newLazyMultiInstances(new ContractKey<>(TestFactoryInterface.class, "lazy"));
+		Assert.assertEquals("Should not create until iterated", created, TestFactoryCountedImpl.CREATED.get());
+		Iterator<TestFactoryInterface> iter = impls.iterator();
+		Assert.assertTrue("Should have an implementation", iter.next() instanceof TestFactoryCountedImpl);
+		Assert.assertEquals("Should only create the first implementation", created + 1, TestFactoryCountedImpl.CREATED.get());
+		Assert.assertTrue("Should have a second implementation", iter.hasNext());
+		iter.next();
+		Assert.assertFalse("Should only have two implementations", iter.hasNext());
+		Assert.assertEquals("Should create the second implementation", created + 2, TestFactoryCountedImpl.CREATED.get());
+	}
+
+	@Test
+	public void testStreamMultiInstances() {
+		Config.getInstance().setProperty(PREFIX + TestFactoryInterface.class.getName() + ".stream",
+				TestFactoryCountedImpl.class.getName() + "," + TestFactoryCountedImpl.class.getName());
+		Config.notifyListeners();
+		int created = TestFactoryCountedImpl.CREATED.get();
+		Assert.assertTrue("Should find an implementation", Factory.streamMultiInstances(TestFactoryInterface.class, "stream").findFirst().isPresent());
+		Assert.assertEquals("Should only create the first implementation", created + 1, TestFactoryCountedImpl.CREATED.get());
+		Assert.assertEquals("Should stream all implementations", 2, Factory.streamMultiInstances(TestFactoryInterface.class, "stream").count());
+	}
+
 	/**
 	 * A test interface to use with the factory.
 	 */
@@ -90,4 +446,149 @@ public class FactoryTest {
 	public static final class TestFactoryInterfaceImpl2 implements TestFactoryInterface {
 	}
 
+	/**
+	 * An abstract implementation of the test interface.
+	 */
+	public abstract static class TestFactoryAbstractImpl implements TestFactoryInterface {
+	}
+
+	/**
+	 * An implementation of the test interface with a private constructor.
+	 */
+	public static final class TestFactoryPrivateImpl implements TestFactoryInterface {
+
+		/**
+		 * Private constructor.
+		 */
+		private TestFactoryPrivateImpl() {
+		}
+	}
+
+	/**
+	 * A singleton implementation of the test interface.
+	 */
+	@Singleton
+	public static final class TestFactorySingletonImpl implements TestFactoryInterface {
+	}
+
+	/**
+	 * A cached implementation of the test interface.
+	 */
+	@Cached
+	public static final class TestFactoryCachedImpl implements TestFactoryInterface {
+	}
+
+	/**
+	 * A cached implementation of the test interface that expires straight away.
+	 */
+	@Cached(ttlMillis = 1L)
+	public static final class TestFactoryExpiringImpl implements TestFactoryInterface {
+	}
+
+	/**
+	 * A pooled implementation of the test interface.
+	 */
+	@Pooled
+	public static final class TestFactoryPooledImpl implements TestFactoryInterface {
+	}
+
+	/**
+	 * An implementation of the test interface that counts its creation.
+	 */
+	public static final class TestFactoryCountedImpl implements TestFactoryInterface {
+
+		private static final AtomicInteger CREATED = new AtomicInteger();
+
+		/**
+		 * Count the creation.
+		 */
+		public TestFactoryCountedImpl() {
+			CREATED.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A singleton implementation of the test interface that counts its creation.
+	 */
+	@Singleton
+	public static final class TestFactoryPreloadSingletonImpl implements TestFactoryInterface {
+
+		private static final AtomicInteger CREATED = new AtomicInteger();
+
+		/**
+		 * Count the creation.
+		 */
+		public TestFactoryPreloadSingletonImpl() {
+			CREATED.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A singleton implementation of the test interface that is slow to construct.
+	 */
+	@Singleton
+	public static final class TestFactorySlowSingletonImpl implements TestFactoryInterface {
+
+		/**
+		 * Slow constructor to give threads a chance to race.
+		 *
+		 * @throws InterruptedException interrupted while sleeping
+		 */
+		public TestFactorySlowSingletonImpl() throws InterruptedException {
+			Thread.sleep(50);
+		}
+	}
+
+	/**
+	 * Class loader that loads its own copy of classes and delegates every other class to its parent.
+	 */
+	private static final class IsolatingClassLoader extends ClassLoader {
+
+		private final List<String> isolated;
+
+		/**
+		 * @param isolated the names of the classes to load a copy of
+		 */
+		private IsolatingClassLoader(final String... isolated) {
+			super(FactoryTest.class.getClassLoader());
+			this.isolated = Arrays.asList(isolated);
+		}
+
+		@Override
+		protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+			if (!isolated.contains(name)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> clazz = findLoadedClass(name);
+				if (clazz == null) {
+					byte[] bytes = readClass(name);
+					clazz = defineClass(name, bytes, 0, bytes.length);
+				}
+				return clazz;
+			}
+		}
+
+		/**
+		 * @param name the class name
+		 * @return the class file bytes
+		 * @throws ClassNotFoundException the class file could not be read
+		 */
+		private byte[] readClass(final String name) throws ClassNotFoundException {
+			try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+				if (in == null) {
+					throw new ClassNotFoundException(name);
+				}
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+					out.write(buffer, 0, read);
+				}
+				return out.toByteArray();
+			} catch (IOException e) {
+				throw new ClassNotFoundException(name, e);
+			}
+		}
+	}
+
 }
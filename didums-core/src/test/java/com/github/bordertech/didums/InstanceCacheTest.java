@@ -0,0 +1,152 @@
+package com.github.bordertech.didums;
+
+import com.github.bordertech.config.Config;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InstanceCache}.
+ */
+public class InstanceCacheTest {
+
+	private static final CacheOptions KEEP = new CacheOptions(60_000L, false);
+
+	@Test
+	public void testCachedInstance() {
+		InstanceCache cache = new InstanceCache("test", 2);
+		Object first = cache.get("a", KEEP, Object::new);
+		Assert.assertSame("Should return the cached instance", first, cache.get("a", KEEP, Object::new));
+		Assert.assertNotSame("Should cache each key", first, cache.get("b", KEEP, Object::new));
+		Assert.assertEquals("Incorrect hits", 1, cache.getHitCount());
+		Assert.assertEquals("Incorrect misses", 2, cache.getMissCount());
+		Assert.assertEquals("Incorrect size", 2, cache.getSize());
+	}
+
+	@Test
+	public void testSoftInstance() {
+		InstanceCache cache = new InstanceCache("test", 2);
+		CacheOptions soft = new CacheOptions(0L, true);
+		Object first = cache.get("a", soft, Object::new);
+		Assert.assertSame("Should return the soft cached instance while strongly reachable", first, cache.get("a", soft, Object::new));
+	}
+
+	@Test
+	public void testExpiry() throws InterruptedException {
+		AtomicInteger created = new AtomicInteger();
+		InstanceCache cache = new InstanceCache("test", 2);
+		CacheOptions expiring = new CacheOptions(1L, false);
+		Object first = cache.get("a", expiring, () -> {
+			created.incrementAndGet();
+			return new Object();
+		});
+		Thread.sleep(20);
+		Object second = cache.get("a", expiring, () -> {
+			created.incrementAndGet();
+			return new Object();
+		});
+		Assert.assertNotSame("Expired instance should be replaced", first, second);
+		Assert.assertEquals("Should create a new instance", 2, created.get());
+		Assert.assertEquals("Incorrect expired count", 1, cache.getExpiredCount());
+	}
+
+	@Test
+	public void testExpiredRemovedOnCreate() throws InterruptedException {
+		InstanceCache cache = new InstanceCache("test", 2);
+		cache.get("a", new CacheOptions(1L, false), Object::new);
+		Thread.sleep(20);
+		cache.get("b", KEEP, Object::new);
+		Assert.assertEquals("Expired instance should be removed", 1, cache.getSize());
+		Assert.assertEquals("Incorrect expired count", 1, cache.getExpiredCount());
+	}
+
+	@Test
+	public void testBoundedSize() throws InterruptedException {
+		InstanceCache cache = new InstanceCache("test", 2);
+		Object first = cache.get("a", KEEP, Object::new);
+		Thread.sleep(2);
+		cache.get("b", KEEP, Object::new);
+		Thread.sleep(2);
+		// Use the first so the second is the least recently used
+		cache.get("a", KEEP, Object::new);
+		Thread.sleep(2);
+		cache.get("c", KEEP, Object::new);
+		Assert.assertEquals("Cache should be bounded", 2, cache.getSize());
+		Assert.assertEquals("Incorrect evicted count", 1, cache.getEvictedCount());
+		Assert.assertSame("Recently used instance should be kept", first, cache.get("a", KEEP, Object::new));
+	}
+
+	@Test
+	public void testClear() {
+		InstanceCache cache = new InstanceCache("test", 2);
+		Object first = cache.get("a", KEEP, Object::new);
+		cache.clear();
+		Assert.assertEquals("Cache should be empty", 0, cache.getSize());
+		Assert.assertEquals("Incorrect evicted count", 1, cache.getEvictedCount());
+		Assert.assertNotSame("Should create a new instance", first, cache.get("a", KEEP, Object::new));
+	}
+
+	@Test
+	public void testConcurrentCreateOnce() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		InstanceCache cache = new InstanceCache("test", 2);
+		CountDownLatch start = new CountDownLatch(1);
+		Callable<Object> task = () -> {
+			start.await();
+			return cache.get("a", KEEP, () -> {
+				created.incrementAndGet();
+				return new Object();
+			});
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<Object> first = executor.submit(task);
+			Future<Object> second = executor.submit(task);
+			Future<Object> third = executor.submit(task);
+			start.countDown();
+			Assert.assertSame("Should be the same instance", first.get(), second.get());
+			Assert.assertSame("Should be the same instance", first.get(), third.get());
+			Assert.assertEquals("Should only create one instance", 1, created.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCreatorFailure() {
+		InstanceCache cache = new InstanceCache("test", 2);
+		try {
+			cache.get("a", KEEP, () -> {
+				throw new IllegalStateException("Failed");
+			});
+			Assert.fail("Creator failure should be thrown");
+		} catch (IllegalStateException e) {
+			Assert.assertEquals("Failed key should be removed", 0, cache.getSize());
+		}
+		Assert.assertNotNull("Should create the instance on the next request", cache.get("a", KEEP, Object::new));
+	}
+
+	@Test
+	public void testDefaultMaxSizeFromConfig() {
+		try {
+			Config.getInstance().setProperty(InstanceCache.MAX_SIZE_PARAM, "3");
+			InstanceCache cache = new InstanceCache("test");
+			Assert.assertEquals("Incorrect maximum size", 3, cache.getMaxSize());
+			Config.getInstance().setProperty(InstanceCache.MAX_SIZE_PARAM, "5");
+			Assert.assertEquals("Should pick up the changed maximum size", 5, cache.getMaxSize());
+		} finally {
+			Config.reset();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeTtl() {
+		new CacheOptions(-1L, false);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.github.bordertech.didums;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InstancePool}.
+ */
+public class InstancePoolTest {
+
+	@Test
+	public void testReuseOnSameThread() {
+		InstancePool<Object> pool = new InstancePool<>(2, 60_000L, Object::new);
+		Object first;
+		try (PooledInstance<Object> borrowed = pool.borrow()) {
+			Assert.assertTrue("Should be pooled", borrowed.isPooled());
+			first = borrowed.get();
+		}
+		try (PooledInstance<Object> borrowed = pool.borrow()) {
+			Assert.assertSame("Should reuse the returned instance", first, borrowed.get());
+		}
+	}
+
+	@Test
+	public void testBoundedIdle() {
+		AtomicInteger created = new AtomicInteger();
+		InstancePool<Object> pool = new InstancePool<>(1, 60_000L, () -> {
+			created.incrementAndGet();
+			return new Object();
+		});
+		PooledInstance<Object> first = pool.borrow();
+		PooledInstance<Object> second = pool.borrow();
+		PooledInstance<Object> third = pool.borrow();
+		Assert.assertEquals("Should create an instance per borrow", 3, created.get());
+		first.close();
+		second.close();
+		third.close();
+		// First is kept in the pool and the others discarded
+		Assert.assertEquals("Pool should be bounded", 1, pool.getIdleCount());
+		pool.borrow();
+		Assert.assertEquals("Should reuse the idle instance", 3, created.get());
+		pool.borrow();
+		Assert.assertEquals("Should create an instance when none idle", 4, created.get());
+		Assert.assertEquals("Pool should be empty", 0, pool.getIdleCount());
+	}
+
+	@Test
+	public void testIdleNotHeldByThread() throws InterruptedException {
+		AtomicInteger created = new AtomicInteger();
+		InstancePool<Object> pool = new InstancePool<>(2, 60_000L, () -> {
+			created.incrementAndGet();
+			return new Object();
+		});
+		Thread thread = new Thread(() -> pool.borrow().close());
+		thread.start();
+		thread.join();
+		Assert.assertEquals("Instance returned by another thread should be idle", 1, pool.getIdleCount());
+		pool.borrow();
+		Assert.assertEquals("Should reuse the instance returned by another thread", 1, created.get());
+	}
+
+	@Test
+	public void testIdleEviction() throws InterruptedException {
+		AtomicInteger created = new AtomicInteger();
+		InstancePool<Object> pool = new InstancePool<>(2, 1L, () -> {
+			created.incrementAndGet();
+			return new Object();
+		});
+		PooledInstance<Object> first = pool.borrow();
+		PooledInstance<Object> second = pool.borrow();
+		first.close();
+		second.close();
+		Thread.sleep(20);
+		pool.borrow();
+		Assert.assertEquals("Expired instances should not be reused", 3, created.get());
+		Assert.assertEquals("Expired instances should be evicted", 0, pool.getIdleCount());
+	}
+
+	@Test
+	public void testCloseTwice() {
+		InstancePool<Object> pool = new InstancePool<>(2, 60_000L, Object::new);
+		PooledInstance<Object> first = pool.borrow();
+		PooledInstance<Object> second = pool.borrow();
+		first.close();
+		second.close();
+		second.close();
+		Assert.assertEquals("Should only return an instance once", 2, pool.getIdleCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testGetAfterClose() {
+		PooledInstance<Object> borrowed = new InstancePool<>(2, 60_000L, Object::new).borrow();
+		borrowed.close();
+		borrowed.get();
+	}
+
+}
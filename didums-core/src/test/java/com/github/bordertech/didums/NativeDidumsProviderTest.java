@@ -0,0 +1,296 @@
+package com.github.bordertech.didums;
+
+import com.github.bordertech.didums.inject.TestInjectPackage;
+import java.util.Arrays;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link NativeDidumsProvider}.
+ */
+public class NativeDidumsProviderTest {
+
+	private static final Named QUALIFIER = getQualifier();
+
+	@Named("A")
+	private static Object qualified;
+
+	private NativeDidumsProvider provider;
+
+	@Before
+	public void setupProvider() {
+		provider = new NativeDidumsProvider();
+	}
+
+	@Test
+	public void serviceNotExist() {
+		Assert.assertNull("Service impl should not exist", provider.getService(TestNativeInterface.class));
+		Assert.assertNull("Qualified service impl should not exist", provider.getService(TestNativeInterface.class, QUALIFIER));
+	}
+
+	@Test
+	public void serviceExists() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, false);
+		Assert.assertTrue("Service impl should exist", provider.getService(TestNativeInterface.class) instanceof TestNativeImpl);
+	}
+
+	@Test
+	public void serviceExistsQualified() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, false);
+		provider.bind(TestNativeInterface.class, TestNativeImpl2.class, false, QUALIFIER);
+		Assert.assertTrue("Service impl should be with the qualifier", provider.getService(TestNativeInterface.class, QUALIFIER) instanceof TestNativeImpl2);
+		Assert.assertTrue("Service impl should be without the qualifier", provider.getService(TestNativeInterface.class) instanceof TestNativeImpl);
+	}
+
+	@Test
+	public void serviceRebind() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, false);
+		provider.bind(TestNativeInterface.class, TestNativeImpl2.class, false);
+		Assert.assertTrue("Service impl should be the latest binding", provider.getService(TestNativeInterface.class) instanceof TestNativeImpl2);
+	}
+
+	@Test
+	public void servicePrototypeScope() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, false);
+		Assert.assertNotSame("Should be a new instance on each lookup", provider.getService(TestNativeInterface.class), provider.getService(TestNativeInterface.class));
+	}
+
+	@Test
+	public void serviceSingletonScope() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, true);
+		Assert.assertSame("Should be the same instance on each lookup", provider.getService(TestNativeInterface.class), provider.getService(TestNativeInterface.class));
+	}
+
+	@Test
+	public void constructorAndFieldInjection() {
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestNativeInterface.class, TestNativeImpl.class, true),
+				new Binding<>(TestNativeInterface.class, TestNativeImpl2.class, false, QUALIFIER),
+				new Binding<>(TestNativeService.class, TestNativeServiceImpl.class, false)));
+		TestNativeServiceImpl service = (TestNativeServiceImpl) provider.getService(TestNativeService.class);
+		Assert.assertSame("Invalid constructor injected class", provider.getService(TestNativeInterface.class), service.foo);
+		Assert.assertTrue("Invalid qualified field injected class", service.qualifiedFoo instanceof TestNativeImpl2);
+		Assert.assertTrue("Invalid super class field injected class", ((TestNativeServiceBase) service).superFoo instanceof TestNativeImpl);
+	}
+
+	@Test
+	public void createAndInject() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, false);
+		TestInject impl = provider.createAndInject(TestInject.class);
+		Assert.assertTrue("Invalid injected class", impl.foo instanceof TestNativeImpl);
+		Assert.assertNotSame("Should be a new instance on each create", impl, provider.createAndInject(TestInject.class));
+	}
+
+	@Test
+	public void providerInjection() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, false);
+		TestProviderInject impl = provider.createAndInject(TestProviderInject.class);
+		Assert.assertTrue("Invalid provided class", impl.foo.get() instanceof TestNativeImpl);
+	}
+
+	@Test(expected = FactoryException.class)
+	public void missingDependency() {
+		provider.createAndInject(TestInject.class);
+	}
+
+	@Test
+	public void dependencyCycle() {
+		provider.bind(TestCycleA.class, TestCycleAImpl.class, true);
+		try {
+			provider.bind(TestCycleB.class, TestCycleBImpl.class, true);
+			Assert.fail("Dependency cycle should not be bound");
+		} catch (FactoryException e) {
+			Assert.assertTrue("Cycle should be reported", e.getMessage().contains(TestCycleAImpl.class.getName() + " -> " + TestCycleBImpl.class.getName()));
+		}
+		Assert.assertNull("Binding with a cycle should not be added", provider.getService(TestCycleB.class));
+	}
+
+	@Test
+	public void dependencyCycleViaProvider() {
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestCycleA.class, TestCycleAImpl.class, true),
+				new Binding<>(TestCycleB.class, TestCycleBProviderImpl.class, true)));
+		TestCycleBProviderImpl cycleB = (TestCycleBProviderImpl) provider.getService(TestCycleB.class);
+		Assert.assertSame("Provider should resolve the cycle lazily", cycleB, ((TestCycleAImpl) cycleB.cycleA.get()).cycleB);
+	}
+
+	@Test
+	public void serviceCachedScope() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, new CacheOptions(60_000L, false));
+		Assert.assertSame("Should be the cached instance on each lookup", provider.getService(TestNativeInterface.class), provider.getService(TestNativeInterface.class));
+		Assert.assertEquals("Incorrect cache misses", 1, provider.getCachedInstances().getMissCount());
+	}
+
+	@Test
+	public void getBindings() {
+		provider.bind(TestNativeInterface.class, TestNativeImpl.class, false);
+		provider.bind(TestNativeInterface.class, TestNativeImpl2.class, true, QUALIFIER);
+		provider.bind(TestNativeInterface.class, TestNativeImpl2.class, false);
+		Assert.assertEquals("Incorrect number of bindings", 2, provider.getBindings().size());
+		Assert.assertEquals("Rebind should replace the binding", TestNativeImpl2.class, provider.getBindings().get(0).getContractImpl());
+		Assert.assertTrue("Qualified binding should be a singleton", provider.getBindings().get(1).isSingleton());
+	}
+
+	@Test(expected = FactoryException.class)
+	public void notConcreteClass() {
+		provider.createAndInject(TestNativeInterface.class);
+	}
+
+	@Test
+	public void servicePackagePrivateImpl() {
+		provider.bind(Runnable.class, TestInjectPackage.getPackagePrivateImpl(), false);
+		Assert.assertTrue("Package-private service impl should be created",
+				provider.getService(Runnable.class).getClass() == TestInjectPackage.getPackagePrivateImpl());
+	}
+
+	@Test(expected = FactoryException.class)
+	public void multipleInjectConstructors() {
+		provider.createAndInject(TestMultipleConstructors.class);
+	}
+
+	/**
+	 * @return the qualifier annotation
+	 */
+	private static Named getQualifier() {
+		try {
+			return NativeDidumsProviderTest.class.getDeclaredField("qualified").getAnnotation(Named.class);
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A test interface.
+	 */
+	public interface TestNativeInterface {
+	}
+
+	/**
+	 * An implementation of the test interface.
+	 */
+	public static final class TestNativeImpl implements TestNativeInterface {
+	}
+
+	/**
+	 * A second implementation of the test interface.
+	 */
+	public static final class TestNativeImpl2 implements TestNativeInterface {
+	}
+
+	/**
+	 * A test service with dependencies.
+	 */
+	public interface TestNativeService {
+	}
+
+	/**
+	 * Super class with an injected field.
+	 */
+	public static class TestNativeServiceBase {
+
+		@Inject
+		private TestNativeInterface superFoo;
+	}
+
+	/**
+	 * Implementation with constructor and field injection.
+	 */
+	public static final class TestNativeServiceImpl extends TestNativeServiceBase implements TestNativeService {
+
+		private final TestNativeInterface foo;
+
+		@Inject
+		@Named("A")
+		private TestNativeInterface qualifiedFoo;
+
+		/**
+		 * @param foo the injected interface
+		 */
+		@Inject
+		public TestNativeServiceImpl(final TestNativeInterface foo) {
+			this.foo = foo;
+		}
+	}
+
+	/**
+	 * Test class with injected interface.
+	 */
+	public static final class TestInject {
+
+		@Inject
+		private TestNativeInterface foo;
+	}
+
+	/**
+	 * Test class with an injected provider.
+	 */
+	public static final class TestProviderInject {
+
+		@Inject
+		private Provider<TestNativeInterface> foo;
+	}
+
+	/**
+	 * Test class with more than one inject constructor.
+	 */
+	public static final class TestMultipleConstructors {
+
+		/**
+		 * Inject constructor.
+		 */
+		@Inject
+		public TestMultipleConstructors() {
+		}
+
+		/**
+		 * @param foo the injected interface
+		 */
+		@Inject
+		public TestMultipleConstructors(final TestNativeInterface foo) {
+		}
+	}
+
+	/**
+	 * First contract of a cycle.
+	 */
+	public interface TestCycleA {
+	}
+
+	/**
+	 * Second contract of a cycle.
+	 */
+	public interface TestCycleB {
+	}
+
+	/**
+	 * Depends on the second contract.
+	 */
+	public static final class TestCycleAImpl implements TestCycleA {
+
+		@Inject
+		private TestCycleB cycleB;
+	}
+
+	/**
+	 * Depends on the first contract.
+	 */
+	public static final class TestCycleBImpl implements TestCycleB {
+
+		@Inject
+		private TestCycleA cycleA;
+	}
+
+	/**
+	 * Depends on a provider of the first contract.
+	 */
+	public static final class TestCycleBProviderImpl implements TestCycleB {
+
+		@Inject
+		private Provider<TestCycleA> cycleA;
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.github.bordertech.didums;
+
+import com.github.bordertech.didums.inject.TestInjectPackage;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import javax.inject.Named;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link QualifierKey}.
+ */
+public class QualifierKeyTest {
+
+	@Named("foo")
+	private Object named;
+
+	@TestMemberQualifier(name = "x", type = String.class, policy = RetentionPolicy.RUNTIME, values = {1, 2})
+	private Object members;
+
+	@TestEmptyQualifier
+	private Object empty;
+
+	@Test
+	public void testNamedKey() throws NoSuchFieldException {
+		Assert.assertEquals("Incorrect named key", "@javax.inject.Named(value=foo)", QualifierKey.getKey(getAnnotation("named", Named.class)));
+	}
+
+	@Test
+	public void testMembersKey() throws NoSuchFieldException {
+		String expected = "@" + TestMemberQualifier.class.getName() + "(name=x, policy=RUNTIME, type=java.lang.String, values=[1, 2])";
+		Assert.assertEquals("Incorrect members key", expected, QualifierKey.getKey(getAnnotation("members", TestMemberQualifier.class)));
+	}
+
+	@Test
+	public void testEmptyKey() throws NoSuchFieldException {
+		String expected = "@" + TestEmptyQualifier.class.getName() + "()";
+		Assert.assertEquals("Incorrect empty key", expected, QualifierKey.getKey(getAnnotation("empty", TestEmptyQualifier.class)));
+	}
+
+	@Test
+	public void testNonPublicKey() {
+		Annotation qualifier = TestInjectPackage.getHiddenQualifier();
+		String expected = "@" + qualifier.annotationType().getName() + "(value=foo)";
+		Assert.assertEquals("Incorrect non-public qualifier key", expected, QualifierKey.getKey(qualifier));
+	}
+
+	@Test
+	public void testLiteralKey() throws NoSuchFieldException {
+		Assert.assertEquals("Proxy and literal of the same qualifier should have the same key",
+				QualifierKey.getKey(getAnnotation("named", Named.class)), QualifierKey.getKey(new TestNamedLiteral("foo")));
+	}
+
+	@Test
+	public void testNoAnnotationTypeKey() {
+		Assert.assertEquals("Annotation without a type should use toString", "A", QualifierKey.getKey(new DidumsTest.TestAnnotatation()));
+	}
+
+	@Test
+	public void testKeyCached() throws NoSuchFieldException {
+		Named qualifier = getAnnotation("named", Named.class);
+		Assert.assertSame("Key should be cached", QualifierKey.getKey(qualifier), QualifierKey.getKey(qualifier));
+	}
+
+	/**
+	 * @param <T> the annotation type
+	 * @param field the field name
+	 * @param type the annotation type
+	 * @return the annotation on the field
+	 * @throws NoSuchFieldException field not found
+	 */
+	private <T extends Annotation> T getAnnotation(final String field, final Class<T> type) throws NoSuchFieldException {
+		return QualifierKeyTest.class.getDeclaredField(field).getAnnotation(type);
+	}
+
+	/**
+	 * Test qualifier with members.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.FIELD)
+	public @interface TestMemberQualifier {
+
+		/**
+		 * @return the values
+		 */
+		int[] values();
+
+		/**
+		 * @return the name
+		 */
+		String name();
+
+		/**
+		 * @return the type
+		 */
+		Class<?> type();
+
+		/**
+		 * @return the policy
+		 */
+		RetentionPolicy policy();
+	}
+
+	/**
+	 * Literal of the named qualifier.
+	 */
+	private static final class TestNamedLiteral implements Named {
+
+		private final String value;
+
+		/**
+		 * @param value the name
+		 */
+		private TestNamedLiteral(final String value) {
+			this.value = value;
+		}
+
+		@Override
+		public String value() {
+			return value;
+		}
+
+		@Override
+		public Class<? extends Annotation> annotationType() {
+			return Named.class;
+		}
+
+		@Override
+		public String toString() {
+			return "@Named(" + value + ")";
+		}
+	}
+
+	/**
+	 * Test qualifier without members.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.FIELD)
+	public @interface TestEmptyQualifier {
+	}
+
+}
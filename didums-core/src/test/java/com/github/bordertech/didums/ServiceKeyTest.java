@@ -0,0 +1,61 @@
+package com.github.bordertech.didums;
+
+import java.lang.annotation.Annotation;
+import javax.inject.Named;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ServiceKey}.
+ */
+public class ServiceKeyTest {
+
+	@Named("foo")
+	private String named;
+
+	@Test
+	public void testUnqualifiedKeyReused() {
+		ServiceKey key = ServiceKey.of(ServiceKeyTest.class);
+		Assert.assertSame("Unqualified key should be reused", key, ServiceKey.of(ServiceKeyTest.class, (Annotation[]) null));
+		Assert.assertEquals("Should equal a created key", new ServiceKey(ServiceKeyTest.class), key);
+	}
+
+	@Test
+	public void testQualifiedKey() throws NoSuchFieldException {
+		Annotation qualifier = ServiceKeyTest.class.getDeclaredField("named").getAnnotation(Named.class);
+		ServiceKey key = ServiceKey.of(ServiceKeyTest.class, qualifier);
+		Assert.assertSame("Qualified key should be reused", key, ServiceKey.of(ServiceKeyTest.class, qualifier));
+		Assert.assertNotEquals("Should not equal the unqualified key", ServiceKey.of(ServiceKeyTest.class), key);
+	}
+
+	@Test
+	public void testBindId() {
+		ServiceKey key = new ServiceKey(ServiceKeyTest.class);
+		Assert.assertEquals("Should not have an id until bound", -1, key.getId());
+		int id = key.bindId();
+		Assert.assertTrue("Should allocate an id", id >= 0);
+		Assert.assertEquals("Should keep the id", id, key.bindId());
+		Assert.assertEquals("Should return the bound id", id, key.getId());
+	}
+
+	@Test
+	public void testProviderMissVersion() {
+		ServiceKey key = new ServiceKey(ServiceKeyTest.class);
+		Assert.assertFalse("Should not be a miss until set", key.isProviderMiss(1));
+		key.setProviderMiss(1);
+		Assert.assertTrue("Should be a miss for the version", key.isProviderMiss(1));
+		Assert.assertFalse("Should not be a miss for a later version", key.isProviderMiss(2));
+	}
+
+	@Test
+	public void testProviderPoolVersion() {
+		ServiceKey key = new ServiceKey(ServiceKeyTest.class);
+		InstancePool<Object> pool = new InstancePool<>(new PoolOptions(1, 1000L), Object::new);
+		Assert.assertSame("Should set the pool", pool, key.setProviderPool(1, pool));
+		Assert.assertSame("Should keep the pool set for the version", pool,
+				key.setProviderPool(1, new InstancePool<>(new PoolOptions(1, 1000L), Object::new)));
+		Assert.assertSame("Should return the pool for the version", pool, key.getProviderPool(1));
+		Assert.assertNull("Should not return the pool for a later version", key.getProviderPool(2));
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.github.bordertech.didums;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test registry loaded by {@link Factory} via the service loader.
+ */
+public class TestFactoryRegistry implements FactoryRegistry {
+
+	/**
+	 * Number of instances created via the registered creator.
+	 */
+	public static final AtomicInteger CREATED = new AtomicInteger();
+
+	@Override
+	public void register(final FactoryRegistrar registrar) {
+		registrar.addCreator(TestRegisteredImpl.class, false, () -> {
+			CREATED.incrementAndGet();
+			return new TestRegisteredImpl();
+		});
+		registrar.addCreator(TestRegisteredSingletonImpl.class, true, TestRegisteredSingletonImpl::new);
+		registrar.addCreator(TestRegisteredPooledImpl.class, false, new PoolOptions(2, 60_000L), null, TestRegisteredPooledImpl::new);
+		registrar.addImplementation(new ContractKey<>(TestRegisteredContract.class), TestRegisteredImpl.class);
+		registrar.addImplementation(new ContractKey<>(TestRegisteredContract.class), TestRegisteredSingletonImpl.class);
+		registrar.addImplementation(new ContractKey<>(TestRegisteredContract.class, "single"), TestRegisteredSingletonImpl.class);
+	}
+
+	/**
+	 * A contract with registered implementations.
+	 */
+	public interface TestRegisteredContract {
+	}
+
+	/**
+	 * A registered implementation.
+	 */
+	public static final class TestRegisteredImpl implements TestRegisteredContract {
+	}
+
+	/**
+	 * A registered singleton implementation. Not annotated so the registered singleton flag is used.
+	 */
+	public static final class TestRegisteredSingletonImpl implements TestRegisteredContract {
+	}
+
+	/**
+	 * A registered pooled implementation. Not annotated so the registered pool settings are used.
+	 */
+	public static final class TestRegisteredPooledImpl implements TestRegisteredContract {
+	}
+
+	/**
+	 * An implementation that is not registered.
+	 */
+	public static final class TestUnregisteredImpl implements TestRegisteredContract {
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.github.bordertech.didums.inject;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test classes in a package other than the providers.
+ */
+public final class TestInjectPackage {
+
+	@TestHiddenQualifier("foo")
+	private static Object hidden;
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private TestInjectPackage() {
+	}
+
+	/**
+	 * @return the package-private implementation class
+	 */
+	public static Class<? extends Runnable> getPackagePrivateImpl() {
+		return TestPackagePrivateImpl.class;
+	}
+
+	/**
+	 * @return the package-private qualifier annotation
+	 */
+	public static Annotation getHiddenQualifier() {
+		try {
+			return TestInjectPackage.class.getDeclaredField("hidden").getAnnotation(TestHiddenQualifier.class);
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Package-private qualifier.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.FIELD)
+	@interface TestHiddenQualifier {
+
+		/**
+		 * @return the value
+		 */
+		String value();
+	}
+
+	/**
+	 * Package-private implementation with a public constructor.
+	 */
+	static final class TestPackagePrivateImpl implements Runnable {
+
+		/**
+		 * Public constructor of a class that is not public.
+		 */
+		public TestPackagePrivateImpl() {
+			// Default constructor
+		}
+
+		@Override
+		public void run() {
+			// Do nothing
+		}
+	}
+
+}
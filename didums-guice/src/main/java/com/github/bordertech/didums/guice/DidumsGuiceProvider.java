@@ -0,0 +1,470 @@
+package com.github.bordertech.didums.guice;
+
+import com.github.bordertech.didums.Binding;
+import com.github.bordertech.didums.CacheOptions;
+import com.github.bordertech.didums.DidumsMetrics;
+import com.github.bordertech.didums.DidumsProvider;
+import com.github.bordertech.didums.FactoryException;
+import com.github.bordertech.didums.InstanceCache;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+import com.google.inject.binder.ScopedBindingBuilder;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Didums Provider that uses Guice for binding.
+ * <p>
+ * A Guice injector cannot be changed once created, so each call to bind creates a single child injector of the
+ * predefined injector holding all the bindings added via this provider, and the previous child injector is discarded.
+ * The injectors do not chain, and binding a contract and qualifier again replaces the previous binding. Singleton and
+ * cached instances of a binding that is not replaced are kept by the binding's scope across the rebuilt injectors.
+ * Guice supports at most one qualifier per binding, so a binding with more than one qualifier is rejected.
+ * </p>
+ * <p>
+ * The Guice provider for a service and qualifiers is cached, so Guice does not look up the binding on every lookup.
+ * The cache is cleared whenever bindings are added.
+ * </p>
+ * <p>
+ * {@link #createAndInject(Class)} binds the class unscoped in its own child injector of the current injector, so each
+ * call creates a new instance (even of a {@link javax.inject.Singleton} class) and the class is not bound in the
+ * current injector. The child injector is created once per class and cached until bindings are added, and as it is a
+ * child of the current injector it does not add to a chain of injectors.
+ * </p>
+ * <p>
+ * Cached bindings are bound in a Guice scope that keeps the instance in an {@link InstanceCache}.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+public class DidumsGuiceProvider implements DidumsProvider {
+
+	/**
+	 * Metrics cache name of the providers.
+	 */
+	private static final String PROVIDER_CACHE = "guice.providers";
+
+	/**
+	 * Metrics cache name of the injection plans.
+	 */
+	private static final String INJECTION_PLAN_CACHE = "guice.injectionPlans";
+
+	/**
+	 * The predefined injector, being the parent of the injector with the bindings added via this provider.
+	 */
+	private final Injector baseInjector;
+
+	/**
+	 * The current injector, being the child injector with the latest bindings.
+	 */
+	private final AtomicReference<Injector> injector;
+
+	/**
+	 * The binding and scope of each Guice key bound via this provider. Only used while holding the bind lock.
+	 */
+	private final Map<Key<?>, BoundEntry> entries = new LinkedHashMap<>();
+
+	/**
+	 * Guice provider for a service and qualifiers, including no provider.
+	 */
+	private final Map<ProviderKey, CachedProvider> providers = new ConcurrentHashMap<>();
+
+	/**
+	 * Unscoped Guice provider of each class created via {@link #createAndInject(Class)}, from its own child injector.
+	 */
+	private final Map<Class<?>, Provider<?>> injectionPlans = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented each time bindings are added so a lookup racing with a bind does not cache a stale entry.
+	 */
+	private final AtomicInteger bindVersion = new AtomicInteger();
+
+	/**
+	 * Lock so concurrent binds each create an injector with the latest bindings.
+	 */
+	private final ReentrantLock bindLock = new ReentrantLock();
+
+	/**
+	 * The bindings added via this provider.
+	 */
+	private final List<Binding<?>> bound = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Instances of the cached bindings.
+	 */
+	private final InstanceCache cachedInstances = new InstanceCache("guice.cached");
+
+	/**
+	 * Use a new Guice injector.
+	 */
+	public DidumsGuiceProvider() {
+		this(Guice.createInjector());
+	}
+
+	/**
+	 * Use a predefined Guice injector.
+	 *
+	 * @param injector the Guice injector to use
+	 */
+	public DidumsGuiceProvider(final Injector injector) {
+		this.baseInjector = injector;
+		this.injector = new AtomicReference<>(injector);
+	}
+
+	/**
+	 * @return the current Guice injector, including the bindings added via this provider
+	 */
+	public final Injector getInjector() {
+		return injector.get();
+	}
+
+	/**
+	 * @return the cache of the cached binding instances, so its size and eviction counts can be checked
+	 */
+	public final InstanceCache getCachedInstances() {
+		return cachedInstances;
+	}
+
+	@Override
+	public <T> T getService(final Class<T> service, final Annotation... qualifiers) {
+		Provider<T> provider = getProvider(service, qualifiers);
+		return provider == null ? null : provider.get();
+	}
+
+	@Override
+	public <T> T createAndInject(final Class<T> createMe) {
+		Provider<T> plan = (Provider<T>) injectionPlans.get(createMe);
+		if (plan == null) {
+			DidumsMetrics.recordCacheMiss(INJECTION_PLAN_CACHE);
+			int version = bindVersion.get();
+			plan = injector.get().createChildInjector(new InjectionPlanModule(createMe)).getProvider(createMe);
+			injectionPlans.put(createMe, plan);
+			// Bindings added while creating so do not keep the entry
+			if (version != bindVersion.get()) {
+				injectionPlans.remove(createMe, plan);
+			}
+		} else {
+			DidumsMetrics.recordCacheHit(INJECTION_PLAN_CACHE);
+		}
+		return plan.get();
+	}
+
+	@Override
+	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers) {
+		bindAll(Collections.singletonList(new Binding<>(contract, contractImpl, singleton, qualifiers)));
+	}
+
+	@Override
+	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final CacheOptions cache, final Annotation... qualifiers) {
+		bindAll(Collections.singletonList(new Binding<>(contract, contractImpl, cache, qualifiers)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * All the bindings are added in one child injector. A binding of a contract and qualifier already bound replaces the
+	 * previous binding.
+	 * </p>
+	 */
+	@Override
+	public void bindAll(final Collection<? extends Binding<?>> bindings) {
+		if (bindings.isEmpty()) {
+			return;
+		}
+		for (Binding<?> binding : bindings) {
+			if (binding.getQualifiers().length > 1) {
+				throw new FactoryException("Guice supports only one qualifier but [" + binding.getContract().getName() + "] is bound with "
+						+ Arrays.toString(binding.getQualifiers()) + ".");
+			}
+		}
+		bindLock.lock();
+		try {
+			Map<Key<?>, BoundEntry> latest = new LinkedHashMap<>(entries);
+			for (Binding<?> binding : bindings) {
+				Key<?> key = getKey(binding.getContract(), binding.getQualifiers());
+				latest.put(key, new BoundEntry(binding, createScope(binding)));
+			}
+			// Rebuild a single child of the predefined injector so the injectors do not chain
+			injector.set(baseInjector.createChildInjector(new BindingModule(latest.values())));
+			entries.clear();
+			entries.putAll(latest);
+			bindVersion.incrementAndGet();
+			providers.clear();
+			injectionPlans.clear();
+			bound.addAll(bindings);
+		} finally {
+			bindLock.unlock();
+		}
+	}
+
+	@Override
+	public List<Binding<?>> getBindings() {
+		return Collections.unmodifiableList(bound);
+	}
+
+	/**
+	 * Retrieve the (cached) Guice provider for the service and qualifiers.
+	 *
+	 * @param <T> the service type
+	 * @param service the service class
+	 * @param qualifiers the service qualifiers
+	 * @return the provider or null if the service is not bound
+	 */
+	private <T> Provider<T> getProvider(final Class<T> service, final Annotation... qualifiers) {
+		// Cannot be bound with more than one qualifier
+		if (qualifiers != null && qualifiers.length > 1) {
+			return null;
+		}
+		ProviderKey key = new ProviderKey(service, qualifiers);
+		CachedProvider provider = providers.get(key);
+		if (provider == null) {
+			DidumsMetrics.recordCacheMiss(PROVIDER_CACHE);
+			int version = bindVersion.get();
+			com.google.inject.Binding<T> binding = injector.get().getExistingBinding(getKey(service, qualifiers));
+			provider = new CachedProvider(binding == null ? null : binding.getProvider());
+			providers.put(key, provider);
+			// Bindings added while looking up so do not keep the entry
+			if (version != bindVersion.get()) {
+				providers.remove(key, provider);
+			}
+		} else {
+			DidumsMetrics.recordCacheHit(PROVIDER_CACHE);
+		}
+		return (Provider<T>) provider.provider;
+	}
+
+	/**
+	 * @param binding the binding
+	 * @return the scope that holds the instances of the binding, or null if unscoped
+	 */
+	private Scope createScope(final Binding<?> binding) {
+		if (binding.isSingleton()) {
+			return new RetainedSingletonScope();
+		}
+		if (binding.getCache() != null) {
+			return new CachedScope(cachedInstances, binding.getCache());
+		}
+		return null;
+	}
+
+	/**
+	 * @param <T> the service type
+	 * @param service the service class
+	 * @param qualifiers the service qualifiers, being at most one qualifier
+	 * @return the Guice key for the service and qualifiers
+	 */
+	private static <T> Key<T> getKey(final Class<T> service, final Annotation... qualifiers) {
+		if (qualifiers == null || qualifiers.length == 0) {
+			return Key.get(service);
+		}
+		return Key.get(service, qualifiers[0]);
+	}
+
+	/**
+	 * A binding added via this provider and the scope that holds its instances.
+	 */
+	private static final class BoundEntry {
+
+		private final Binding<?> binding;
+
+		private final Scope scope;
+
+		/**
+		 * @param binding the binding
+		 * @param scope the scope of the binding, or null if unscoped
+		 */
+		private BoundEntry(final Binding<?> binding, final Scope scope) {
+			this.binding = binding;
+			this.scope = scope;
+		}
+	}
+
+	/**
+	 * Guice module that adds the Didums bindings.
+	 */
+	private static final class BindingModule extends AbstractModule {
+
+		private final List<BoundEntry> entries;
+
+		/**
+		 * @param entries the bindings to add
+		 */
+		private BindingModule(final Collection<BoundEntry> entries) {
+			this.entries = new ArrayList<>(entries);
+		}
+
+		@Override
+		protected void configure() {
+			for (BoundEntry entry : entries) {
+				addBinding(entry.binding, entry.scope);
+			}
+		}
+
+		/**
+		 * @param <T> the service type
+		 * @param binding the binding to add
+		 * @param scope the scope of the binding, or null if unscoped
+		 */
+		private <T> void addBinding(final Binding<T> binding, final Scope scope) {
+			ScopedBindingBuilder builder = bind(getKey(binding.getContract(), binding.getQualifiers())).to(binding.getContractImpl());
+			if (scope != null) {
+				builder.in(scope);
+			}
+		}
+	}
+
+	/**
+	 * Guice module that binds a class created via {@link #createAndInject(Class)} unscoped, overriding any scope
+	 * annotation of the class.
+	 */
+	private static final class InjectionPlanModule extends AbstractModule {
+
+		private final Class<?> createMe;
+
+		/**
+		 * @param createMe the class to create instances of
+		 */
+		private InjectionPlanModule(final Class<?> createMe) {
+			this.createMe = createMe;
+		}
+
+		@Override
+		protected void configure() {
+			bind(createMe).in(Scopes.NO_SCOPE);
+		}
+	}
+
+	/**
+	 * Guice scope of a singleton binding that keeps its instance across the injectors rebuilt when bindings are added.
+	 */
+	private static final class RetainedSingletonScope implements Scope {
+
+		private final AtomicReference<Object> instance = new AtomicReference<>();
+
+		private final Object lock = new Object();
+
+		@Override
+		public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
+			return () -> {
+				Object obj = instance.get();
+				if (obj == null) {
+					synchronized (lock) {
+						obj = instance.get();
+						if (obj == null) {
+							obj = unscoped.get();
+							instance.set(obj);
+						}
+					}
+				}
+				return (T) obj;
+			};
+		}
+
+		@Override
+		public String toString() {
+			return "Didums.Singleton";
+		}
+	}
+
+	/**
+	 * Guice scope of a cached binding that keeps the instance in the instance cache.
+	 */
+	private static final class CachedScope implements Scope {
+
+		private final InstanceCache cachedInstances;
+
+		private final CacheOptions options;
+
+		/**
+		 * @param cachedInstances the cache of the cached binding instances
+		 * @param options the cache settings of the binding
+		 */
+		private CachedScope(final InstanceCache cachedInstances, final CacheOptions options) {
+			this.cachedInstances = cachedInstances;
+			this.options = options;
+		}
+
+		@Override
+		public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
+			// Keyed by the scope, so the instance is kept across rebuilt injectors but not for a replaced binding
+			return () -> cachedInstances.get(this, options, unscoped::get);
+		}
+
+		@Override
+		public String toString() {
+			return "Didums.Cached(" + options + ")";
+		}
+	}
+
+	/**
+	 * The Guice provider for a service and qualifiers.
+	 */
+	private static final class CachedProvider {
+
+		private final Provider<?> provider;
+
+		/**
+		 * @param provider the provider or null if the service is not bound
+		 */
+		private CachedProvider(final Provider<?> provider) {
+			this.provider = provider;
+		}
+	}
+
+	/**
+	 * A service and its qualifiers used as the provider cache key.
+	 */
+	private static final class ProviderKey {
+
+		private final Class<?> service;
+
+		private final Annotation[] qualifiers;
+
+		private final int hash;
+
+		/**
+		 * @param service the service class
+		 * @param qualifiers the service qualifiers
+		 */
+		private ProviderKey(final Class<?> service, final Annotation... qualifiers) {
+			this.service = service;
+			this.qualifiers = qualifiers == null ? new Annotation[0] : qualifiers.clone();
+			this.hash = 31 * service.hashCode() + Arrays.hashCode(this.qualifiers);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ProviderKey)) {
+				return false;
+			}
+			ProviderKey other = (ProviderKey) obj;
+			return hash == other.hash && service.equals(other.service) && Arrays.equals(qualifiers, other.qualifiers);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Didums Dependency Injection provided by Guice.
+ */
+package com.github.bordertech.didums.guice;
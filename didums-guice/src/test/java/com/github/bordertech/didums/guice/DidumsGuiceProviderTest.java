@@ -0,0 +1,218 @@
+package com.github.bordertech.didums.guice;
+
+import com.github.bordertech.didums.Binding;
+import com.github.bordertech.didums.CacheOptions;
+import com.github.bordertech.didums.DidumsProvider;
+import com.github.bordertech.didums.Factory;
+import com.github.bordertech.didums.FactoryException;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import java.util.Arrays;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DidumsGuiceProvider}.
+ */
+public class DidumsGuiceProviderTest {
+
+	private DidumsGuiceProvider provider;
+
+	@Before
+	public void setupProvider() {
+		provider = new DidumsGuiceProvider();
+	}
+
+	@Test
+	public void checkFactorySetting() {
+		DidumsProvider impl = Factory.newInstance(DidumsProvider.class);
+		Assert.assertTrue("Invalid provider instance via factory", impl instanceof DidumsGuiceProvider);
+	}
+
+	@Test
+	public void guiceServiceNotExist() {
+		Assert.assertNull("Service impl should not exist", provider.getService(TestGuiceInterface.class));
+	}
+
+	@Test
+	public void guiceServiceExists() {
+		// Bind Implementation
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false);
+		Assert.assertTrue("Service impl should exist", provider.getService(TestGuiceInterface.class) instanceof TestGuiceImpl);
+	}
+
+	@Test
+	public void guiceServiceCached() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, new CacheOptions(60_000L, false));
+		Object impl = provider.getService(TestGuiceInterface.class);
+		Assert.assertTrue("Service impl should exist", impl instanceof TestGuiceImpl);
+		Assert.assertSame("Should be the cached instance on each lookup", impl, provider.getService(TestGuiceInterface.class));
+		Assert.assertEquals("Incorrect cache misses", 1, provider.getCachedInstances().getMissCount());
+	}
+
+	@Test
+	public void guiceGetBindings() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, true);
+		Assert.assertEquals("Incorrect number of bindings", 1, provider.getBindings().size());
+		Assert.assertEquals("Incorrect binding implementation", TestGuiceImpl.class, provider.getBindings().get(0).getContractImpl());
+	}
+
+	@Test
+	public void guiceServiceExistsQualified() {
+		// BIND without qualifier
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false);
+		// BIND with qualifier
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl2.class, false, new TestQualifierImpl());
+		// Get instance of qualified class
+		Assert.assertTrue("Service impl should be with the qualifier", provider.getService(TestGuiceInterface.class, new TestQualifierImpl()) instanceof TestGuiceImpl2);
+		Assert.assertTrue("Service impl should be without the qualifier", provider.getService(TestGuiceInterface.class) instanceof TestGuiceImpl);
+	}
+
+	@Test
+	public void guiceServiceMultipleQualifiers() {
+		Assert.assertNull("Service with more than one qualifier should not exist",
+				provider.getService(TestGuiceInterface.class, new TestQualifierImpl(), new TestQualifierImpl()));
+	}
+
+	@Test(expected = FactoryException.class)
+	public void guiceBindMultipleQualifiers() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false, new TestQualifierImpl(), new TestQualifierImpl());
+	}
+
+	@Test
+	public void guiceTestInject() {
+		// Bind Implementation to be injected
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false);
+		// Create instance of class with injected class
+		TestInject impl = provider.createAndInject(TestInject.class);
+		// Check instance of injected class
+		Assert.assertTrue("Invalid injected class", impl.foo instanceof TestGuiceImpl);
+	}
+
+	@Test
+	public void guiceTestInjectNewInstance() {
+		TestInjectSingleton first = provider.createAndInject(TestInjectSingleton.class);
+		Assert.assertNotSame("Should create a new instance of a singleton class", first, provider.createAndInject(TestInjectSingleton.class));
+		Assert.assertNull("Class should not be bound in the injector", provider.getInjector().getExistingBinding(Key.get(TestInjectSingleton.class)));
+	}
+
+	@Test
+	public void guiceTestInjectAfterBind() {
+		// Cache the injection plan before the bind
+		Assert.assertNotNull("Should create the class", provider.createAndInject(TestInjectSingleton.class));
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false);
+		TestInject impl = provider.createAndInject(TestInject.class);
+		Assert.assertTrue("Should inject the new binding", impl.foo instanceof TestGuiceImpl);
+	}
+
+	@Test
+	public void guiceServiceCacheClearedOnBind() {
+		// Cache the miss
+		Assert.assertNull("Service impl should not exist", provider.getService(TestGuiceInterface.class));
+		// Bind Implementation
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false);
+		Assert.assertTrue("Service impl should exist after bind", provider.getService(TestGuiceInterface.class) instanceof TestGuiceImpl);
+	}
+
+	@Test
+	public void guiceServicePrototypeScope() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false);
+		Assert.assertNotSame("Should be a new instance on each lookup", provider.getService(TestGuiceInterface.class), provider.getService(TestGuiceInterface.class));
+	}
+
+	@Test
+	public void guiceServiceSingletonScope() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, true);
+		Assert.assertSame("Should be the same instance on each lookup", provider.getService(TestGuiceInterface.class), provider.getService(TestGuiceInterface.class));
+	}
+
+	@Test
+	public void guiceSingletonKeptAfterBind() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, true);
+		Object singleton = provider.getService(TestGuiceInterface.class);
+		// Add another binding
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl2.class, false, new TestQualifierImpl());
+		Assert.assertSame("Singleton should be kept after a bind", singleton, provider.getService(TestGuiceInterface.class));
+	}
+
+	@Test
+	public void guiceRebind() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, true);
+		Object singleton = provider.getService(TestGuiceInterface.class);
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl2.class, true);
+		Assert.assertTrue("Service impl should be the latest binding", provider.getService(TestGuiceInterface.class) instanceof TestGuiceImpl2);
+		Assert.assertNotSame("Singleton of the replaced binding should not be kept", singleton, provider.getService(TestGuiceInterface.class));
+	}
+
+	@Test
+	public void guiceBindDoesNotChainInjectors() {
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl.class, false);
+		provider.bind(TestGuiceInterface.class, TestGuiceImpl2.class, false, new TestQualifierImpl());
+		Assert.assertNull("Bindings should be in one child injector", provider.getInjector().getParent().getParent());
+		Assert.assertTrue("Earlier binding should be kept", provider.getService(TestGuiceInterface.class) instanceof TestGuiceImpl);
+		Assert.assertTrue("Later binding should be added", provider.getService(TestGuiceInterface.class, new TestQualifierImpl()) instanceof TestGuiceImpl2);
+	}
+
+	@Test
+	public void guiceBindAllSingleInjector() {
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestGuiceInterface.class, TestGuiceImpl.class, false),
+				new Binding<>(TestGuiceInterface.class, TestGuiceImpl2.class, true, new TestQualifierImpl())));
+		Assert.assertNotNull("Bindings should be added in one child injector", provider.getInjector().getParent());
+		Assert.assertNull("Bindings should be added in one child injector", provider.getInjector().getParent().getParent());
+		Assert.assertTrue("Service impl should exist", provider.getService(TestGuiceInterface.class) instanceof TestGuiceImpl);
+		Object qualified = provider.getService(TestGuiceInterface.class, new TestQualifierImpl());
+		Assert.assertTrue("Qualified service impl should exist", qualified instanceof TestGuiceImpl2);
+		Assert.assertSame("Qualified service should be singleton", qualified, provider.getService(TestGuiceInterface.class, new TestQualifierImpl()));
+	}
+
+	@Test
+	public void guicePredefinedInjector() {
+		provider = new DidumsGuiceProvider(Guice.createInjector(new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(TestGuiceInterface.class).to(TestGuiceImpl2.class);
+			}
+		}));
+		Assert.assertTrue("Service impl should be from the predefined injector", provider.getService(TestGuiceInterface.class) instanceof TestGuiceImpl2);
+	}
+
+	/**
+	 * A test interface to use with the factory.
+	 */
+	public static interface TestGuiceInterface {
+	}
+
+	/**
+	 * An implementation of the test interface.
+	 */
+	public static final class TestGuiceImpl implements TestGuiceInterface {
+	}
+
+	/**
+	 * A second implementation of the test interface.
+	 */
+	public static final class TestGuiceImpl2 implements TestGuiceInterface {
+	}
+
+	/**
+	 * Test class with injected interface.
+	 */
+	public static final class TestInject {
+
+		@Inject
+		private TestGuiceInterface foo;
+	}
+
+	/**
+	 * Test singleton class created via create and inject.
+	 */
+	@Singleton
+	public static final class TestInjectSingleton {
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.github.bordertech.didums.guice;
+
+import com.github.bordertech.didums.Didums;
+import com.github.bordertech.didums.Pooled;
+import com.github.bordertech.didums.PooledInstance;
+import com.github.bordertech.didums.ServiceHandle;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Didums} backed by {@link DidumsGuiceProvider}.
+ */
+public class DidumsGuiceTest {
+
+	@Test
+	public void checkProvider() {
+		Assert.assertTrue("Invalid provider", Didums.getProvider() instanceof DidumsGuiceProvider);
+	}
+
+	@Test
+	public void serviceBoundAfterMiss() {
+		// Provider miss
+		Assert.assertFalse("Service should not exist", Didums.hasService(TestDidumsInterface.class));
+		// Bind Implementation
+		Didums.bind(TestDidumsInterface.class, TestDidumsImpl.class, false);
+		Assert.assertTrue("Service should exist after bind", Didums.hasService(TestDidumsInterface.class));
+		Assert.assertTrue("Service impl should be from the provider", Didums.getService(TestDidumsInterface.class) instanceof TestDidumsImpl);
+	}
+
+	@Test
+	public void qualifiedServiceBoundAfterMiss() {
+		// Provider miss
+		Assert.assertFalse("Qualified service should not exist", Didums.hasService(TestDidumsQualifiedInterface.class, new TestQualifierImpl()));
+		// Bind Implementation
+		Didums.bind(TestDidumsQualifiedInterface.class, TestDidumsQualifiedImpl.class, false, new TestQualifierImpl());
+		Assert.assertTrue("Qualified service should exist after bind", Didums.hasService(TestDidumsQualifiedInterface.class, new TestQualifierImpl()));
+	}
+
+	@Test
+	public void handleResolvedAfterBind() {
+		ServiceHandle<TestDidumsHandleInterface> handle = Didums.lookup(TestDidumsHandleInterface.class, TestDidumsHandleDefaultImpl.class);
+		Assert.assertTrue("Handle should use the default impl", handle.get() instanceof TestDidumsHandleDefaultImpl);
+		// Bind Implementation
+		Didums.bind(TestDidumsHandleInterface.class, TestDidumsHandleImpl.class, false);
+		Assert.assertTrue("Handle should use the provider after bind", handle.get() instanceof TestDidumsHandleImpl);
+		Assert.assertNotSame("Handle should match the provider scope", handle.get(), handle.get());
+	}
+
+	@Test
+	public void borrowPooledService() {
+		Didums.bind(TestDidumsPooledInterface.class, TestDidumsPooledImpl.class, false);
+		TestDidumsPooledInterface first;
+		try (PooledInstance<TestDidumsPooledInterface> borrowed = Didums.borrow(TestDidumsPooledInterface.class)) {
+			Assert.assertTrue("Should be pooled", borrowed.isPooled());
+			first = borrowed.get();
+			Assert.assertTrue("Service impl should be from the provider", first instanceof TestDidumsPooledImpl);
+		}
+		try (PooledInstance<TestDidumsPooledInterface> borrowed = Didums.borrow(TestDidumsPooledInterface.class)) {
+			Assert.assertSame("Should reuse the returned instance", first, borrowed.get());
+		}
+		Assert.assertNotSame("getService should not use the pool", first, Didums.getService(TestDidumsPooledInterface.class));
+	}
+
+	/**
+	 * A test interface.
+	 */
+	public interface TestDidumsInterface {
+	}
+
+	/**
+	 * An implementation of the test interface.
+	 */
+	public static final class TestDidumsImpl implements TestDidumsInterface {
+	}
+
+	/**
+	 * A test interface to use with a handle.
+	 */
+	public interface TestDidumsHandleInterface {
+	}
+
+	/**
+	 * Default implementation of the handle test interface.
+	 */
+	public static final class TestDidumsHandleDefaultImpl implements TestDidumsHandleInterface {
+	}
+
+	/**
+	 * Bound implementation of the handle test interface.
+	 */
+	public static final class TestDidumsHandleImpl implements TestDidumsHandleInterface {
+	}
+
+	/**
+	 * A test interface to bind with a qualifier.
+	 */
+	public interface TestDidumsQualifiedInterface {
+	}
+
+	/**
+	 * An implementation of the qualified test interface.
+	 */
+	public static final class TestDidumsQualifiedImpl implements TestDidumsQualifiedInterface {
+	}
+
+	/**
+	 * A test interface to use with a pool.
+	 */
+	public interface TestDidumsPooledInterface {
+	}
+
+	/**
+	 * A pooled implementation of the test interface.
+	 */
+	@Pooled
+	public static final class TestDidumsPooledImpl implements TestDidumsPooledInterface {
+	}
+
+}
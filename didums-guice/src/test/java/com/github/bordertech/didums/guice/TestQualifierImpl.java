@@ -0,0 +1,31 @@
+package com.github.bordertech.didums.guice;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Instance of the test qualifier annotation to use on binding test.
+ */
+public class TestQualifierImpl implements TestQualifier {
+
+	@Override
+	public Class<? extends Annotation> annotationType() {
+		return TestQualifier.class;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		return obj instanceof TestQualifier;
+	}
+
+	@Override
+	public int hashCode() {
+		// Annotation with no members
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return "@" + TestQualifier.class.getName() + "()";
+	}
+
+}
@@ -1,37 +1,123 @@
 package com.github.bordertech.didums.hk2;
 
 import com.github.bordertech.config.Config;
+import com.github.bordertech.didums.Binding;
+import com.github.bordertech.didums.CacheOptions;
+import com.github.bordertech.didums.DidumsMetrics;
 import com.github.bordertech.didums.DidumsProvider;
+import com.github.bordertech.didums.InstanceCache;
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Singleton;
+import org.glassfish.hk2.api.ActiveDescriptor;
+import org.glassfish.hk2.api.DynamicConfigurationListener;
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.api.ServiceHandle;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.ServiceLocatorFactory;
+import org.glassfish.hk2.api.ServiceLocatorState;
 import org.glassfish.hk2.utilities.Binder;
+import org.glassfish.hk2.utilities.BuilderHelper;
 import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.hk2.utilities.binding.ServiceBindingBuilder;
 
 /**
  * Didums Provider that uses HK2 for binding.
+ * <p>
+ * The best descriptor for a service and qualifiers is cached, so HK2 does not filter and match descriptors on every
+ * lookup. The cache is cleared whenever the HK2 configuration changes.
+ * </p>
+ * <p>
+ * The injection plan (constructor, injection points and post construct method) of each class created via
+ * {@link #createAndInject(Class)} is also cached, so HK2 only analyzes the class once. The dependencies are still
+ * looked up on each call.
+ * </p>
+ * <p>
+ * Cached bindings are bound to an HK2 factory that keeps the instance in an {@link InstanceCache}.
+ * </p>
+ * <p>
+ * Closing the provider destroys the default HK2 service locator if it was created by this provider, so Didums can retry
+ * its binders against a new service locator after a binder fails. A predefined or shared service locator is kept and
+ * only the listener that clears the descriptor cache is removed from it.
+ * </p>
  *
  * @author Jonathan Austin
  * @since 1.0.0
  */
-public class DidumsHk2Provider implements DidumsProvider {
+public class DidumsHk2Provider implements DidumsProvider, AutoCloseable {
 
 	/**
 	 * Default HK2 context name.
 	 */
 	public static final String CONTEXT_NAME = Config.getInstance().getString("bordertech.didums.hk2.context", "bt-hk2");
 
+	/**
+	 * Metrics cache name of the descriptors.
+	 */
+	private static final String DESCRIPTOR_CACHE = "hk2.descriptors";
+
+	/**
+	 * Metrics cache name of the injection plans.
+	 */
+	private static final String INJECTION_PLAN_CACHE = "hk2.injectionPlans";
+
 	private final ServiceLocator serviceLocator;
 
+	/**
+	 * True if the service locator was created by this provider.
+	 */
+	private final boolean ownsLocator;
+
+	/**
+	 * The descriptor of the listener that clears the cached descriptors, so it can be removed when closed.
+	 */
+	private final ActiveDescriptor<DynamicConfigurationListener> cacheListener;
+
+	/**
+	 * Best descriptor for a service and qualifiers, including no descriptor.
+	 */
+	private final Map<DescriptorKey, CachedDescriptor> descriptors = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented each time the HK2 configuration changes so a lookup racing with a change does not cache a stale entry.
+	 */
+	private final AtomicInteger configVersion = new AtomicInteger();
+
+	/**
+	 * Injection plan of each class created via {@link #createAndInject(Class)}, being an unbound descriptor analyzed by
+	 * HK2. Held against the class so it is released if the class is unloaded.
+	 */
+	private final ClassValue<AtomicReference<ActiveDescriptor<?>>> injectionPlans = new ClassValue<AtomicReference<ActiveDescriptor<?>>>() {
+		@Override
+		protected AtomicReference<ActiveDescriptor<?>> computeValue(final Class<?> type) {
+			return new AtomicReference<>();
+		}
+	};
+
+	/**
+	 * The bindings added via this provider.
+	 */
+	private final List<Binding<?>> bound = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Instances of the cached bindings.
+	 */
+	private final InstanceCache cachedInstances = new InstanceCache("hk2.cached");
+
 	/**
 	 * Use the default HK2 service locator.
 	 */
 	public DidumsHk2Provider() {
-		ServiceLocatorFactory factory = ServiceLocatorFactory.getInstance();
-		serviceLocator = factory.create(CONTEXT_NAME);
+		this(ServiceLocatorFactory.getInstance().find(CONTEXT_NAME) == null);
 	}
 
 	/**
@@ -40,7 +126,26 @@ public class DidumsHk2Provider implements DidumsProvider {
 	 * @param serviceLocator the HK2 service locator to use
 	 */
 	public DidumsHk2Provider(final ServiceLocator serviceLocator) {
+		this(serviceLocator, false);
+	}
+
+	/**
+	 * @param create true to create the default HK2 service locator, false to use the existing one
+	 */
+	private DidumsHk2Provider(final boolean create) {
+		this(create ? ServiceLocatorFactory.getInstance().create(CONTEXT_NAME) : ServiceLocatorFactory.getInstance().find(CONTEXT_NAME), create);
+	}
+
+	/**
+	 * @param serviceLocator the HK2 service locator to use
+	 * @param ownsLocator true if the service locator was created by this provider
+	 */
+	private DidumsHk2Provider(final ServiceLocator serviceLocator, final boolean ownsLocator) {
 		this.serviceLocator = serviceLocator;
+		this.ownsLocator = ownsLocator;
+		// Clear the cached descriptors when the HK2 configuration changes
+		this.cacheListener = ServiceLocatorUtilities.addOneConstant(serviceLocator, new DescriptorCacheListener(), null,
+				DynamicConfigurationListener.class);
 	}
 
 	/**
@@ -50,31 +155,213 @@ public class DidumsHk2Provider implements DidumsProvider {
 		return serviceLocator;
 	}
 
+	/**
+	 * Destroy the service locator if it was created by this provider. A predefined or shared service locator is kept
+	 * and the descriptor cache listener of this provider is removed from it.
+	 */
+	@Override
+	public void close() {
+		if (ownsLocator) {
+			ServiceLocatorFactory.getInstance().destroy(serviceLocator);
+		} else if (serviceLocator.getState() == ServiceLocatorState.RUNNING) {
+			ServiceLocatorUtilities.removeOneDescriptor(serviceLocator, cacheListener);
+		}
+	}
+
+	/**
+	 * @return the cache of the cached binding instances, so its size and eviction counts can be checked
+	 */
+	public final InstanceCache getCachedInstances() {
+		return cachedInstances;
+	}
+
 	@Override
 	public <T> T getService(final Class<T> service, final Annotation... qualifiers) {
-		return serviceLocator.getService(service, qualifiers);
+		ActiveDescriptor<T> descriptor = getDescriptor(service, qualifiers);
+		return descriptor == null ? null : serviceLocator.getService(descriptor, null);
 	}
 
 	@Override
 	public <T> T createAndInject(final Class<T> createMe) {
-		return serviceLocator.createAndInitialize(createMe);
+		AtomicReference<ActiveDescriptor<?>> holder = injectionPlans.get(createMe);
+		ActiveDescriptor<T> plan = (ActiveDescriptor<T>) holder.get();
+		if (plan == null) {
+			DidumsMetrics.recordCacheMiss(INJECTION_PLAN_CACHE);
+			holder.compareAndSet(null, serviceLocator.reifyDescriptor(BuilderHelper.createDescriptorFromClass(createMe)));
+			plan = (ActiveDescriptor<T>) holder.get();
+		} else {
+			DidumsMetrics.recordCacheHit(INJECTION_PLAN_CACHE);
+		}
+		// Create directly via the descriptor as it is not bound to a scope
+		return plan.create(null);
 	}
 
 	@Override
 	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final boolean singleton, final Annotation... qualifiers) {
+		bindAll(Collections.singletonList(new Binding<>(contract, contractImpl, singleton, qualifiers)));
+	}
+
+	@Override
+	public <T, U extends T> void bind(final Class<T> contract, final Class<U> contractImpl, final CacheOptions cache, final Annotation... qualifiers) {
+		bindAll(Collections.singletonList(new Binding<>(contract, contractImpl, cache, qualifiers)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * All the bindings are committed to the service locator in one configuration change.
+	 * </p>
+	 */
+	@Override
+	public void bindAll(final Collection<? extends Binding<?>> bindings) {
+		if (bindings.isEmpty()) {
+			return;
+		}
 		Binder binder = new AbstractBinder() {
 			@Override
 			protected void configure() {
-				ServiceBindingBuilder builder = bind(contractImpl).to(contract);
-				for (Annotation annotation : qualifiers) {
-					builder.qualifiedBy(annotation);
-				}
-				if (singleton) {
-					builder.in(Singleton.class);
+				for (Binding<?> binding : bindings) {
+					ServiceBindingBuilder builder;
+					if (binding.getCache() == null) {
+						builder = bind(binding.getContractImpl()).to(binding.getContract());
+					} else {
+						builder = bindFactory(new CachedFactory(binding)).to(binding.getContract());
+					}
+					for (Annotation annotation : binding.getQualifiers()) {
+						builder.qualifiedBy(annotation);
+					}
+					if (binding.isSingleton()) {
+						builder.in(Singleton.class);
+					}
 				}
 			}
 		};
 		ServiceLocatorUtilities.bind(serviceLocator, binder);
+		bound.addAll(bindings);
+	}
+
+	@Override
+	public List<Binding<?>> getBindings() {
+		return Collections.unmodifiableList(bound);
+	}
+
+	/**
+	 * Retrieve the (cached) best descriptor for the service and qualifiers.
+	 *
+	 * @param <T> the service type
+	 * @param service the service class
+	 * @param qualifiers the service qualifiers
+	 * @return the best descriptor or null if no descriptor
+	 */
+	private <T> ActiveDescriptor<T> getDescriptor(final Class<T> service, final Annotation... qualifiers) {
+		DescriptorKey key = new DescriptorKey(service, qualifiers);
+		CachedDescriptor descriptor = descriptors.get(key);
+		if (descriptor == null) {
+			DidumsMetrics.recordCacheMiss(DESCRIPTOR_CACHE);
+			int version = configVersion.get();
+			ServiceHandle<T> handle = serviceLocator.getServiceHandle(service, qualifiers);
+			descriptor = new CachedDescriptor(handle == null ? null : handle.getActiveDescriptor());
+			descriptors.put(key, descriptor);
+			// Configuration changed while looking up so do not keep the entry
+			if (version != configVersion.get()) {
+				descriptors.remove(key, descriptor);
+			}
+		} else {
+			DidumsMetrics.recordCacheHit(DESCRIPTOR_CACHE);
+		}
+		return (ActiveDescriptor<T>) descriptor.descriptor;
+	}
+
+	/**
+	 * Clears the cached descriptors when the HK2 configuration changes.
+	 */
+	@Singleton
+	private final class DescriptorCacheListener implements DynamicConfigurationListener {
+
+		@Override
+		public void configurationChanged() {
+			configVersion.incrementAndGet();
+			descriptors.clear();
+		}
+	}
+
+	/**
+	 * HK2 factory of a cached binding that creates and injects the implementation when none is cached.
+	 */
+	private final class CachedFactory implements Factory<Object> {
+
+		private final Binding<?> binding;
+
+		/**
+		 * @param binding the cached binding
+		 */
+		private CachedFactory(final Binding<?> binding) {
+			this.binding = binding;
+		}
+
+		@Override
+		public Object provide() {
+			return cachedInstances.get(this, binding.getCache(), () -> createAndInject(binding.getContractImpl()));
+		}
+
+		@Override
+		public void dispose(final Object instance) {
+			// The cache releases the instance
+		}
+	}
+
+	/**
+	 * The best descriptor for a service and qualifiers.
+	 */
+	private static final class CachedDescriptor {
+
+		private final ActiveDescriptor<?> descriptor;
+
+		/**
+		 * @param descriptor the best descriptor or null if no descriptor
+		 */
+		private CachedDescriptor(final ActiveDescriptor<?> descriptor) {
+			this.descriptor = descriptor;
+		}
+	}
+
+	/**
+	 * A service and its qualifiers used as the descriptor cache key.
+	 */
+	private static final class DescriptorKey {
+
+		private final Class<?> service;
+
+		private final Annotation[] qualifiers;
+
+		private final int hash;
+
+		/**
+		 * @param service the service class
+		 * @param qualifiers the service qualifiers
+		 */
+		private DescriptorKey(final Class<?> service, final Annotation... qualifiers) {
+			this.service = service;
+			this.qualifiers = qualifiers == null ? new Annotation[0] : qualifiers.clone();
+			this.hash = 31 * service.hashCode() + Arrays.hashCode(this.qualifiers);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof DescriptorKey)) {
+				return false;
+			}
+			DescriptorKey other = (DescriptorKey) obj;
+			return hash == other.hash && service.equals(other.service) && Arrays.equals(qualifiers, other.qualifiers);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
 	}
 
 }
@@ -1,8 +1,18 @@
 package com.github.bordertech.didums.hk2;
 
+import com.github.bordertech.didums.Binding;
+import com.github.bordertech.didums.CacheOptions;
 import com.github.bordertech.didums.DidumsProvider;
 import com.github.bordertech.didums.Factory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.glassfish.hk2.api.DynamicConfigurationListener;
+import org.glassfish.hk2.api.PostConstruct;
+import org.glassfish.hk2.api.ServiceLocatorFactory;
+import org.glassfish.hk2.api.ServiceLocatorState;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -43,6 +53,43 @@ public class DidumsHk2ProviderTest {
 		Assert.assertTrue("Service impl should exist", provider.getService(TestHK2Interface.class) instanceof TestHK2Impl);
 	}
 
+	@Test
+	public void hk2ServiceCached() {
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, new CacheOptions(60_000L, false));
+		Object impl = provider.getService(TestHK2Interface.class);
+		Assert.assertTrue("Service impl should exist", impl instanceof TestHK2Impl);
+		Assert.assertSame("Should be the cached instance on each lookup", impl, provider.getService(TestHK2Interface.class));
+		Assert.assertEquals("Incorrect cache misses", 1, provider.getCachedInstances().getMissCount());
+	}
+
+	@Test
+	public void hk2CloseDestroysCreatedLocator() {
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, false);
+		provider.close();
+		Assert.assertNull("Created service locator should be destroyed", ServiceLocatorFactory.getInstance().find(DidumsHk2Provider.CONTEXT_NAME));
+		provider = new DidumsHk2Provider();
+		Assert.assertNull("Bindings of the closed provider should not be kept", provider.getService(TestHK2Interface.class));
+	}
+
+	@Test
+	public void hk2CloseRemovesListenerFromSharedLocator() {
+		int listeners = provider.getServiceLocator().getAllServiceHandles(DynamicConfigurationListener.class).size();
+		DidumsHk2Provider shared = new DidumsHk2Provider(provider.getServiceLocator());
+		Assert.assertEquals("Listener should be added to the shared locator", listeners + 1,
+				provider.getServiceLocator().getAllServiceHandles(DynamicConfigurationListener.class).size());
+		shared.close();
+		Assert.assertEquals("Shared service locator should not be destroyed", ServiceLocatorState.RUNNING, provider.getServiceLocator().getState());
+		Assert.assertEquals("Listener should be removed from the shared locator", listeners,
+				provider.getServiceLocator().getAllServiceHandles(DynamicConfigurationListener.class).size());
+	}
+
+	@Test
+	public void hk2GetBindings() {
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, true);
+		Assert.assertEquals("Incorrect number of bindings", 1, provider.getBindings().size());
+		Assert.assertEquals("Incorrect binding implementation", TestHK2Impl.class, provider.getBindings().get(0).getContractImpl());
+	}
+
 	@Test
 	public void hk2ServiceExistsQualified() {
 		// BIND without qualifier
@@ -63,6 +110,72 @@ public class DidumsHk2ProviderTest {
 		Assert.assertTrue("Invalid injected class", impl.foo instanceof TestHK2Impl);
 	}
 
+	@Test
+	public void hk2TestInjectNewInstance() {
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, false);
+		TestInjectPostConstruct first = provider.createAndInject(TestInjectPostConstruct.class);
+		TestInjectPostConstruct second = provider.createAndInject(TestInjectPostConstruct.class);
+		Assert.assertNotSame("Should be a new instance on each create", first, second);
+		Assert.assertTrue("Invalid injected class", second.foo instanceof TestHK2Impl);
+		Assert.assertTrue("Post construct should be called", second.constructed);
+	}
+
+	@Test
+	public void hk2TestInjectResolvedOnEachCreate() {
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, true);
+		TestInject first = provider.createAndInject(TestInject.class);
+		// Destroy the singleton so the next create has to look up the dependency again
+		provider.getServiceLocator().getServiceHandle(TestHK2Interface.class).destroy();
+		TestInject second = provider.createAndInject(TestInject.class);
+		Assert.assertNotSame("Singleton dependency should be resolved again", first.foo, second.foo);
+	}
+
+	@Test
+	public void hk2ServiceCacheClearedOnBind() {
+		// Cache the miss
+		Assert.assertNull("Service impl should not exist", provider.getService(TestHK2Interface.class));
+		// Bind Implementation
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, false);
+		Assert.assertTrue("Service impl should exist after bind", provider.getService(TestHK2Interface.class) instanceof TestHK2Impl);
+	}
+
+	@Test
+	public void hk2ServiceCacheClearedOnLocatorChange() {
+		// Cache the miss
+		Assert.assertNull("Service impl should not exist", provider.getService(TestHK2Interface.class));
+		// Bind directly on the locator
+		ServiceLocatorUtilities.addClasses(provider.getServiceLocator(), TestHK2Impl.class);
+		Assert.assertTrue("Service impl should exist after locator change", provider.getService(TestHK2Impl.class) instanceof TestHK2Impl);
+	}
+
+	@Test
+	public void hk2ServicePrototypeScope() {
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, false);
+		Assert.assertNotSame("Should be a new instance on each lookup", provider.getService(TestHK2Interface.class), provider.getService(TestHK2Interface.class));
+	}
+
+	@Test
+	public void hk2ServiceSingletonScope() {
+		provider.bind(TestHK2Interface.class, TestHK2Impl.class, true);
+		Assert.assertSame("Should be the same instance on each lookup", provider.getService(TestHK2Interface.class), provider.getService(TestHK2Interface.class));
+	}
+
+	@Test
+	public void hk2BindAllSingleCommit() {
+		TestConfigListener listener = new TestConfigListener();
+		ServiceLocatorUtilities.addOneConstant(provider.getServiceLocator(), listener, null, DynamicConfigurationListener.class);
+		int commits = listener.commits.get();
+		// Bind all in one call
+		provider.bindAll(Arrays.asList(
+				new Binding<>(TestHK2Interface.class, TestHK2Impl.class, false),
+				new Binding<>(TestHK2Interface.class, TestHK2Impl2.class, true, new TestQualifierImpl())));
+		Assert.assertEquals("Bindings should be committed in one change", commits + 1, listener.commits.get());
+		Assert.assertTrue("Service impl should exist", provider.getService(TestHK2Interface.class) instanceof TestHK2Impl);
+		Object qualified = provider.getService(TestHK2Interface.class, new TestQualifierImpl());
+		Assert.assertTrue("Qualified service impl should exist", qualified instanceof TestHK2Impl2);
+		Assert.assertSame("Qualified service should be singleton", qualified, provider.getService(TestHK2Interface.class, new TestQualifierImpl()));
+	}
+
 	/**
 	 * A test interface to use with the factory.
 	 */
@@ -81,6 +194,20 @@ public class DidumsHk2ProviderTest {
 	public static final class TestHK2Impl2 implements TestHK2Interface {
 	}
 
+	/**
+	 * Counts the HK2 configuration changes.
+	 */
+	@Singleton
+	public static final class TestConfigListener implements DynamicConfigurationListener {
+
+		private final AtomicInteger commits = new AtomicInteger();
+
+		@Override
+		public void configurationChanged() {
+			commits.incrementAndGet();
+		}
+	}
+
 	/**
 	 * Test class with injected interface.
 	 */
@@ -90,4 +217,20 @@ public class DidumsHk2ProviderTest {
 		private TestHK2Interface foo;
 	}
 
+	/**
+	 * Test class with injected interface and a post construct method.
+	 */
+	public static final class TestInjectPostConstruct implements PostConstruct {
+
+		@Inject
+		private TestHK2Interface foo;
+
+		private boolean constructed;
+
+		@Override
+		public void postConstruct() {
+			constructed = foo != null;
+		}
+	}
+
 }
@@ -0,0 +1,383 @@
+package com.github.bordertech.didums.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that generates a <code>FactoryRegistry</code> so the <code>Factory</code> can find and create
+ * implementations without reflection.
+ * <p>
+ * Classes annotated with <code>FactoryImpl</code> are registered as the implementation of their contracts. Classes
+ * annotated with <code>FactoryImpl</code> or <code>javax.inject.Singleton</code> have their constructor registered so
+ * the Factory does not call it via reflection. Registered classes must be public with a public no-argument
+ * constructor. Singleton classes that cannot be created this way are skipped. The <code>Pooled</code> and
+ * <code>Cached</code> settings of a registered class are also registered, so the Factory does not read its
+ * annotations via reflection.
+ * </p>
+ * <p>
+ * The registry is generated in the package of the first registered class (by name) and is named
+ * <code>DidumsFactoryRegistry</code>. The fully qualified name can be set via the <code>didums.registry</code>
+ * processor option. The registry is added to <code>META-INF/services</code> so it is loaded by the Factory.
+ * </p>
+ *
+ * @author Jonathan Austin
+ * @since 1.0.6
+ */
+@SupportedAnnotationTypes({DidumsProcessor.FACTORY_IMPL, DidumsProcessor.SINGLETON})
+@SupportedOptions(DidumsProcessor.REGISTRY_OPTION)
+public class DidumsProcessor extends AbstractProcessor {
+
+	/**
+	 * Processor option to set the fully qualified name of the generated registry.
+	 */
+	public static final String REGISTRY_OPTION = "didums.registry";
+
+	/**
+	 * Factory implementation annotation.
+	 */
+	static final String FACTORY_IMPL = "com.github.bordertech.didums.FactoryImpl";
+
+	/**
+	 * Singleton annotation.
+	 */
+	static final String SINGLETON = "javax.inject.Singleton";
+
+	private static final String POOLED = "com.github.bordertech.didums.Pooled";
+
+	private static final String CACHED = "com.github.bordertech.didums.Cached";
+
+	private static final String REGISTRY_INTERFACE = "com.github.bordertech.didums.FactoryRegistry";
+
+	private static final String REGISTRY_NAME = "DidumsFactoryRegistry";
+
+	/**
+	 * Registrations keyed by implementation class name so the generated code is in a stable order.
+	 */
+	private final Map<String, Registration> registrations = new TreeMap<>();
+
+	private boolean generated;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.CLASS) {
+					collect((TypeElement) element);
+				}
+			}
+		}
+		if (roundEnv.processingOver() || registrations.isEmpty()) {
+			return false;
+		}
+		if (generated) {
+			for (String name : registrations.keySet()) {
+				if (!registrations.get(name).isWritten()) {
+					warning("Class [" + name + "] was generated after the registry and is not registered.");
+				}
+			}
+			return false;
+		}
+		generate();
+		return false;
+	}
+
+	/**
+	 * Collect the registration details of an annotated class.
+	 *
+	 * @param type the annotated class
+	 */
+	private void collect(final TypeElement type) {
+		String name = type.getQualifiedName().toString();
+		if (registrations.containsKey(name)) {
+			return;
+		}
+		AnnotationMirror factoryImpl = findAnnotation(type, FACTORY_IMPL);
+		if (!isCreatable(type)) {
+			if (factoryImpl != null) {
+				error("Class [" + name + "] must be a public concrete class with a public no-argument constructor.", type);
+			}
+			return;
+		}
+		Registration registration = new Registration(name, findAnnotation(type, SINGLETON) != null,
+				getPoolOptions(type), getCacheOptions(type));
+		if (factoryImpl != null) {
+			List<String> qualifiers = new ArrayList<>();
+			for (AnnotationValue value : getValues(factoryImpl, "qualifiers")) {
+				qualifiers.add((String) value.getValue());
+			}
+			for (AnnotationValue value : getValues(factoryImpl, "value")) {
+				TypeMirror contract = (TypeMirror) value.getValue();
+				if (!processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()),
+						processingEnv.getTypeUtils().erasure(contract))) {
+					error("Class [" + name + "] does not implement contract [" + contract + "].", type);
+					return;
+				}
+				TypeElement contractType = (TypeElement) processingEnv.getTypeUtils().asElement(contract);
+				registration.addContract(contractType.getQualifiedName().toString(), qualifiers);
+			}
+		}
+		registrations.put(name, registration);
+	}
+
+	/**
+	 * Generate the registry source and service file.
+	 */
+	private void generate() {
+		generated = true;
+		String registryName = processingEnv.getOptions().get(REGISTRY_OPTION);
+		if (registryName == null || registryName.isEmpty()) {
+			String firstName = registrations.keySet().iterator().next();
+			PackageElement pkg = processingEnv.getElementUtils().getPackageOf(processingEnv.getElementUtils().getTypeElement(firstName));
+			registryName = pkg.isUnnamed() ? REGISTRY_NAME : pkg.getQualifiedName() + "." + REGISTRY_NAME;
+		}
+		try {
+			writeRegistry(registryName);
+			FileObject services = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					"META-INF/services/" + REGISTRY_INTERFACE);
+			try (Writer writer = services.openWriter()) {
+				writer.write(registryName);
+				writer.write('\n');
+			}
+		} catch (IOException e) {
+			error("Could not write registry [" + registryName + "]. " + e.getMessage(), null);
+		}
+	}
+
+	/**
+	 * @param registryName the fully qualified name of the registry
+	 * @throws IOException an exception writing the source
+	 */
+	private void writeRegistry(final String registryName) throws IOException {
+		int dot = registryName.lastIndexOf('.');
+		String pkg = dot < 0 ? null : registryName.substring(0, dot);
+		String simpleName = registryName.substring(dot + 1);
+		JavaFileObject source = processingEnv.getFiler().createSourceFile(registryName);
+		try (Writer writer = source.openWriter()) {
+			if (pkg != null) {
+				writer.write("package " + pkg + ";\n\n");
+			}
+			writer.write("/**\n * Factory registry generated by " + DidumsProcessor.class.getName() + ".\n */\n");
+			writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+			writer.write("public final class " + simpleName + " implements " + REGISTRY_INTERFACE + " {\n\n");
+			writer.write("\t@Override\n");
+			writer.write("\tpublic void register(final com.github.bordertech.didums.FactoryRegistrar registrar) {\n");
+			for (Registration registration : registrations.values()) {
+				registration.write(writer);
+			}
+			writer.write("\t}\n\n}\n");
+		}
+	}
+
+	/**
+	 * @param type the class to check
+	 * @return true if the class can be created via its public no-argument constructor from any package
+	 */
+	private boolean isCreatable(final TypeElement type) {
+		if (!isAccessible(type) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param type the class to check
+	 * @return true if the class and its enclosing classes are public and it is not an inner class
+	 */
+	private boolean isAccessible(final TypeElement type) {
+		if (!type.getModifiers().contains(Modifier.PUBLIC)) {
+			return false;
+		}
+		Element enclosing = type.getEnclosingElement();
+		if (enclosing instanceof TypeElement) {
+			return type.getModifiers().contains(Modifier.STATIC) && isAccessible((TypeElement) enclosing);
+		}
+		return true;
+	}
+
+	/**
+	 * @param element the annotated element
+	 * @param annotationName the annotation class name
+	 * @return the annotation mirror or null if not present
+	 */
+	private AnnotationMirror findAnnotation(final Element element, final String annotationName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotation.getQualifiedName().contentEquals(annotationName)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param type the registered class
+	 * @return the source to create the pool settings or null if the class is not pooled
+	 */
+	private String getPoolOptions(final TypeElement type) {
+		AnnotationMirror pooled = findAnnotation(type, POOLED);
+		if (pooled == null) {
+			return null;
+		}
+		return "new com.github.bordertech.didums.PoolOptions(" + getValue(pooled, "maxIdle") + ", "
+				+ getValue(pooled, "idleTimeoutMillis") + "L)";
+	}
+
+	/**
+	 * @param type the registered class
+	 * @return the source to create the cache settings or null if the class is not cached
+	 */
+	private String getCacheOptions(final TypeElement type) {
+		AnnotationMirror cached = findAnnotation(type, CACHED);
+		if (cached == null) {
+			return null;
+		}
+		return "new com.github.bordertech.didums.CacheOptions(" + getValue(cached, "ttlMillis") + "L, "
+				+ getValue(cached, "soft") + ")";
+	}
+
+	/**
+	 * @param mirror the annotation mirror
+	 * @param name the member name
+	 * @return the member value, or its default if not set
+	 */
+	private Object getValue(final AnnotationMirror mirror, final String name) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+				: processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name)) {
+				return entry.getValue().getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param mirror the annotation mirror
+	 * @param name the array member name
+	 * @return the array member values or an empty list if not set
+	 */
+	private List<? extends AnnotationValue> getValues(final AnnotationMirror mirror, final String name) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name)) {
+				Object value = entry.getValue().getValue();
+				return value instanceof List ? (List<? extends AnnotationValue>) value : Collections.singletonList(entry.getValue());
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * @param message the error message
+	 * @param element the element in error, or null
+	 */
+	private void error(final String message, final Element element) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	/**
+	 * @param message the warning message
+	 */
+	private void warning(final String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message);
+	}
+
+	/**
+	 * The registration details of an implementation class.
+	 */
+	private final class Registration {
+
+		private final String implName;
+
+		private final boolean singleton;
+
+		private final String pool;
+
+		private final String cache;
+
+		private final List<String> contracts = new ArrayList<>();
+
+		private boolean written;
+
+		/**
+		 * @param implName the implementation class name
+		 * @param singleton true if a singleton
+		 * @param pool the source to create the pool settings or null if not pooled
+		 * @param cache the source to create the cache settings or null if not cached
+		 */
+		private Registration(final String implName, final boolean singleton, final String pool, final String cache) {
+			this.implName = implName;
+			this.singleton = singleton;
+			this.pool = pool;
+			this.cache = cache;
+		}
+
+		/**
+		 * @param contractName the contract class name
+		 * @param qualifiers the contract qualifiers
+		 */
+		private void addContract(final String contractName, final List<String> qualifiers) {
+			StringBuilder key = new StringBuilder("new com.github.bordertech.didums.ContractKey<>(");
+			key.append(contractName).append(".class");
+			for (String qualifier : qualifiers) {
+				key.append(", ").append(processingEnv.getElementUtils().getConstantExpression(qualifier));
+			}
+			key.append(')');
+			contracts.add(key.toString());
+		}
+
+		/**
+		 * @return true if the registration has been written to the registry
+		 */
+		private boolean isWritten() {
+			return written;
+		}
+
+		/**
+		 * @param writer the registry source writer
+		 * @throws IOException an exception writing the source
+		 */
+		private void write(final Writer writer) throws IOException {
+			writer.write("\t\tregistrar.addCreator(" + implName + ".class, " + singleton + ", " + pool + ", " + cache + ", "
+					+ implName + "::new);\n");
+			for (String contract : contracts) {
+				writer.write("\t\tregistrar.addImplementation(" + contract + ", " + implName + ".class);\n");
+			}
+			written = true;
+		}
+	}
+
+}
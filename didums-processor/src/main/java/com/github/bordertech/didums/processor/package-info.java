@@ -0,0 +1,4 @@
+/**
+ * Annotation processor that generates a Didums Factory registry.
+ */
+package com.github.bordertech.didums.processor;
@@ -0,0 +1,185 @@
+package com.github.bordertech.didums.processor;
+
+import com.github.bordertech.didums.CacheOptions;
+import com.github.bordertech.didums.ContractKey;
+import com.github.bordertech.didums.FactoryRegistrar;
+import com.github.bordertech.didums.FactoryRegistry;
+import com.github.bordertech.didums.PoolOptions;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.inject.Singleton;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link DidumsProcessor}.
+ */
+public class DidumsProcessorTest {
+
+	private static final String CONTRACT = "package my.example;\npublic interface Foo {\n}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGenerateRegistry() throws Exception {
+		File output = folder.newFolder();
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(output, Collections.emptyList(),
+				source("my.example.Foo", CONTRACT),
+				source("my.example.FooImpl", "package my.example;\n@com.github.bordertech.didums.FactoryImpl(Foo.class)\npublic class FooImpl implements Foo {\n}\n"),
+				source("my.example.other.OtherFoo", "package my.example.other;\n@javax.inject.Singleton\n"
+						+ "@com.github.bordertech.didums.FactoryImpl(value = my.example.Foo.class, qualifiers = {\"a\", \"b\"})\n"
+						+ "public class OtherFoo implements my.example.Foo {\n}\n"),
+				source("my.example.PooledFoo", "package my.example;\n@com.github.bordertech.didums.FactoryImpl(value = Foo.class, qualifiers = \"pooled\")\n"
+						+ "@com.github.bordertech.didums.Pooled(maxIdle = 2)\npublic class PooledFoo implements Foo {\n}\n"),
+				source("my.example.Service", "package my.example;\n@javax.inject.Singleton\n"
+						+ "@com.github.bordertech.didums.Cached(ttlMillis = 1000, soft = true)\npublic class Service {\n}\n"),
+				source("my.example.Hidden", "package my.example;\n@javax.inject.Singleton\nclass Hidden {\n}\n"));
+		Assert.assertTrue("Should compile: " + diagnostics.getDiagnostics(), errors(diagnostics).isEmpty());
+
+		String service = new String(Files.readAllBytes(new File(output, "META-INF/services/com.github.bordertech.didums.FactoryRegistry").toPath()),
+				StandardCharsets.UTF_8);
+		Assert.assertEquals("Incorrect registry service", "my.example.DidumsFactoryRegistry", service.trim());
+
+		List<String> registered = register(output, "my.example.DidumsFactoryRegistry");
+		Assert.assertEquals("Incorrect registrations", Arrays.asList(
+				"creator my.example.FooImpl false null null",
+				"impl my.example.Foo my.example.FooImpl",
+				"creator my.example.PooledFoo false max idle 2, idle timeout 60000ms null",
+				"impl my.example.Foo.pooled my.example.PooledFoo",
+				"creator my.example.Service true null ttl 1000ms, soft",
+				"creator my.example.other.OtherFoo true null null",
+				"impl my.example.Foo.a.b my.example.other.OtherFoo"), registered);
+	}
+
+	@Test
+	public void testRegistryNameOption() throws Exception {
+		File output = folder.newFolder();
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(output, Collections.singletonList("-Adidums.registry=my.app.AppRegistry"),
+				source("my.example.Foo", CONTRACT),
+				source("my.example.FooImpl", "package my.example;\n@com.github.bordertech.didums.FactoryImpl(Foo.class)\npublic class FooImpl implements Foo {\n}\n"));
+		Assert.assertTrue("Should compile: " + diagnostics.getDiagnostics(), errors(diagnostics).isEmpty());
+		Assert.assertEquals("Incorrect registrations", 2, register(output, "my.app.AppRegistry").size());
+	}
+
+	@Test
+	public void testErrorNotCreatable() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(folder.newFolder(), Collections.emptyList(),
+				source("my.example.Foo", CONTRACT),
+				source("my.example.FooImpl", "package my.example;\n@com.github.bordertech.didums.FactoryImpl(Foo.class)\npublic class FooImpl implements Foo {\n"
+						+ "  public FooImpl(String arg) {\n  }\n}\n"));
+		Assert.assertEquals("Should report the class cannot be created", 1, errors(diagnostics).size());
+	}
+
+	@Test
+	public void testErrorContractNotImplemented() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(folder.newFolder(), Collections.emptyList(),
+				source("my.example.Foo", CONTRACT),
+				source("my.example.FooImpl", "package my.example;\n@com.github.bordertech.didums.FactoryImpl(Foo.class)\npublic class FooImpl {\n}\n"));
+		Assert.assertEquals("Should report the contract is not implemented", 1, errors(diagnostics).size());
+	}
+
+	/**
+	 * @param output the class output directory
+	 * @param options the compiler options
+	 * @param sources the sources to compile
+	 * @return the compile diagnostics
+	 * @throws URISyntaxException invalid class path
+	 */
+	private static DiagnosticCollector<JavaFileObject> compile(final File output, final List<String> options,
+			final JavaFileObject... sources) throws URISyntaxException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<String> args = new ArrayList<>(options);
+		args.addAll(Arrays.asList("-d", output.getPath(), "-s", output.getPath(), "-classpath",
+				classPath(FactoryRegistry.class) + File.pathSeparator + classPath(Singleton.class)));
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, args, null, Arrays.asList(sources));
+		task.setProcessors(Collections.singletonList(new DidumsProcessor()));
+		task.call();
+		return diagnostics;
+	}
+
+	/**
+	 * @param output the class output directory
+	 * @param registryName the registry class name
+	 * @return the registrations made by the generated registry
+	 * @throws Exception an exception loading the registry
+	 */
+	private static List<String> register(final File output, final String registryName) throws Exception {
+		List<String> registered = new ArrayList<>();
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toURI().toURL()}, DidumsProcessorTest.class.getClassLoader())) {
+			FactoryRegistry registry = (FactoryRegistry) loader.loadClass(registryName).getConstructor().newInstance();
+			registry.register(new FactoryRegistrar() {
+				@Override
+				public <T> void addCreator(final Class<T> implClass, final boolean singleton, final PoolOptions pool, final CacheOptions cache,
+						final Supplier<? extends T> creator) {
+					Assert.assertTrue("Should create the implementation", implClass.isInstance(creator.get()));
+					registered.add("creator " + implClass.getName() + " " + singleton + " " + pool + " " + cache);
+				}
+
+				@Override
+				public <T> void addImplementation(final ContractKey<T> key, final Class<? extends T> implClass) {
+					registered.add("impl " + key.getKeySuffix() + " " + implClass.getName());
+				}
+			});
+		}
+		return registered;
+	}
+
+	/**
+	 * @param diagnostics the compile diagnostics
+	 * @return the error diagnostics
+	 */
+	private static List<Diagnostic<? extends JavaFileObject>> errors(final DiagnosticCollector<JavaFileObject> diagnostics) {
+		List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+				errors.add(diagnostic);
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * @param clazz a class on the class path
+	 * @return the class path entry containing the class
+	 * @throws URISyntaxException invalid class path
+	 */
+	private static String classPath(final Class<?> clazz) throws URISyntaxException {
+		return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+	}
+
+	/**
+	 * @param className the class name
+	 * @param code the source code
+	 * @return the source file object
+	 */
+	private static JavaFileObject source(final String className, final String code) {
+		return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(final boolean ignoreEncodingErrors) throws IOException {
+				return code;
+			}
+		};
+	}
+
+}